@@ -0,0 +1,45 @@
+package com.university.courses.bulk;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * One parsed row of an upload. {@code line} is the 1-based line number in the source,
+ * and {@code error} is set when the line itself could not be parsed.
+ */
+public record ImportRecord(long line, Map<String, String> values, String error) {
+    
+    public String get(String field) {
+        String value = values.get(field);
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+    
+    public Integer getInteger(String field) {
+        String value = get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+    
+    public LocalDate getDate(String field) {
+        String value = get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " must be an ISO date (yyyy-MM-dd)");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.university.courses.bulk;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formats accepted by the bulk import endpoints and produced by the export endpoints.
+ */
+public enum RecordFormat {
+    CSV,
+    NDJSON;
+    
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    
+    public static RecordFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            throw new IllegalArgumentException("Content-Type must be " + CSV_MEDIA_TYPE + " or " + NDJSON_MEDIA_TYPE);
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+            return CSV;
+        }
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                || mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported Content-Type: " + contentType);
+    }
+    
+    /**
+     * The format named by a {@code format} request parameter, e.g. {@code csv}.
+     */
+    public static RecordFormat fromName(String name) {
+        for (RecordFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name + ", expected csv or ndjson");
+    }
+    
+    public String mediaType() {
+        return this == CSV ? CSV_MEDIA_TYPE : NDJSON_MEDIA_TYPE;
+    }
+    
+    public String fileExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
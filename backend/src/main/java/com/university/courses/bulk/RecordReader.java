@@ -0,0 +1,130 @@
+package com.university.courses.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Streams an upload one record at a time so arbitrarily large files never sit in memory.
+ * CSV input must start with a header row; NDJSON input is one flat JSON object per line.
+ * Field names are matched case-insensitively.
+ */
+public class RecordReader implements Closeable {
+    
+    private final BufferedReader reader;
+    private final RecordFormat format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long lineNumber;
+    
+    public RecordReader(InputStream inputStream, RecordFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Returns the next non-blank record, or {@code null} at end of input.
+     */
+    public ImportRecord next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == RecordFormat.CSV && header == null) {
+                header = parseCsvLine(stripBom(line));
+                continue;
+            }
+            return format == RecordFormat.CSV ? csvRecord(line) : jsonRecord(line);
+        }
+        return null;
+    }
+    
+    private ImportRecord csvRecord(String line) {
+        List<String> fields = parseCsvLine(line);
+        if (fields.size() > header.size()) {
+            return new ImportRecord(lineNumber, Collections.emptyMap(),
+                    "Expected " + header.size() + " columns but found " + fields.size());
+        }
+        Map<String, String> values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < fields.size(); i++) {
+            values.put(header.get(i).trim(), fields.get(i));
+        }
+        return new ImportRecord(lineNumber, values, null);
+    }
+    
+    private ImportRecord jsonRecord(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.isObject()) {
+                return new ImportRecord(lineNumber, Collections.emptyMap(), "Line is not a JSON object");
+            }
+            Map<String, String> values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                if (!field.getValue().isNull()) {
+                    values.put(field.getKey(), field.getValue().asText());
+                }
+            }
+            return new ImportRecord(lineNumber, values, null);
+        } catch (JsonProcessingException e) {
+            return new ImportRecord(lineNumber, Collections.emptyMap(), "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+    
+    /**
+     * RFC 4180 field splitting for a single physical line: quoted fields may contain commas
+     * and doubled quotes, but not line breaks.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+    
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
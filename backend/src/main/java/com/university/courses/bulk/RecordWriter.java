@@ -0,0 +1,122 @@
+package com.university.courses.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes records one at a time through a small buffer, the counterpart of {@link RecordReader}.
+ * CSV output starts with a header row of the column names; NDJSON output is one flat JSON object
+ * per line. Dates are written in ISO format, so an export can be fed back to an import.
+ * <p>
+ * Nothing reaches the underlying stream until the buffer fills or {@link #flush()} is called, and
+ * the stream is never closed.
+ */
+public class RecordWriter implements Flushable {
+    
+    private final Writer writer;
+    private final List<String> columns;
+    private final JsonGenerator json;
+    
+    public RecordWriter(OutputStream outputStream, RecordFormat format, List<String> columns, ObjectMapper objectMapper)
+            throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.columns = columns;
+        if (format == RecordFormat.CSV) {
+            this.json = null;
+            writeCsvLine(columns.toArray());
+        } else {
+            this.json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        }
+    }
+    
+    /**
+     * Writes one record; {@code values} are in column order.
+     */
+    public void write(Object[] values) throws IOException {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values but got " + values.length);
+        }
+        if (json == null) {
+            writeCsvLine(values);
+            return;
+        }
+        json.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            json.writeFieldName(columns.get(i));
+            Object value = values[i];
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof BigDecimal decimal) {
+                json.writeNumber(decimal);
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+                json.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Boolean bool) {
+                json.writeBoolean(bool);
+            } else {
+                json.writeString(text(value));
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+    
+    private void writeCsvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(text(values[i])));
+            }
+        }
+        writer.write("\r\n");
+    }
+    
+    /**
+     * Quotes a field that contains a comma, quote or line break, doubling any quotes (RFC 4180).
+     */
+    static String escapeCsv(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+    
+    /**
+     * JDBC date and time types as ISO strings (e.g. {@code 2024-09-01T08:30}) rather than their
+     * legacy {@code toString} forms.
+     */
+    private static String text(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+}
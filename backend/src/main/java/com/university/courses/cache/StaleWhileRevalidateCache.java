@@ -0,0 +1,185 @@
+package com.university.courses.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache that serves expired entries while one background refresh runs.
+ * <ul>
+ *   <li>fresh entry: returned as is</li>
+ *   <li>expired entry: returned as is, and a refresh is started unless one is already running</li>
+ *   <li>no entry: loaded on the caller's thread; concurrent callers for the same key share the load</li>
+ * </ul>
+ * A failed refresh keeps the old value, so an unreachable database degrades to stale reads rather
+ * than errors. Entries leave only through size-based (least recently used) eviction or invalidation.
+ * A load that started before an invalidation is returned to its caller but neither stored nor
+ * shared with callers that arrive after it.
+ * <p>
+ * Publishes {@code cache.gets} (tagged {@code result=hit|stale|miss}), {@code cache.evictions},
+ * {@code cache.load.failures} and {@code cache.size}, all tagged with the cache name.
+ */
+@Slf4j
+public class StaleWhileRevalidateCache<K, V> {
+    
+    private static final ExecutorService REFRESHER = Executors.newVirtualThreadPerTaskExecutor();
+    
+    private final String name;
+    private final long ttlMillis;
+    private final Function<K, V> loader;
+    private final Executor refresher;
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, Load<V>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter loadFailures;
+    
+    public StaleWhileRevalidateCache(String name, int maxEntries, long ttlMillis, Function<K, V> loader, MeterRegistry meterRegistry) {
+        this(name, maxEntries, ttlMillis, loader, meterRegistry, REFRESHER);
+    }
+    
+    StaleWhileRevalidateCache(String name, int maxEntries, long ttlMillis, Function<K, V> loader, MeterRegistry meterRegistry,
+                              Executor refresher) {
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.loader = loader;
+        this.refresher = refresher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = counter(meterRegistry, "cache.gets", "hit");
+        this.staleHits = counter(meterRegistry, "cache.gets", "stale");
+        this.misses = counter(meterRegistry, "cache.gets", "miss");
+        this.evictions = Counter.builder("cache.evictions").tag("cache", name).register(meterRegistry);
+        this.loadFailures = Counter.builder("cache.load.failures").tag("cache", name).register(meterRegistry);
+        Gauge.builder("cache.size", this, StaleWhileRevalidateCache::size).tag("cache", name).register(meterRegistry);
+    }
+    
+    public V get(K key) {
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return join(load(key));
+        }
+        if (System.currentTimeMillis() - entry.loadedAt() < ttlMillis) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+            load(key);
+        }
+        return entry.value();
+    }
+    
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+    
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    /**
+     * Starts a load for the key, or joins the one already running if it started after the last
+     * invalidation; an older one may return data the invalidation was meant to hide, so it is
+     * replaced rather than joined. A refresh of an existing entry runs in the background; a load for
+     * a missing key runs on the caller's thread.
+     */
+    private CompletableFuture<V> load(K key) {
+        long current = generation.get();
+        Load<V> load = new Load<>(new CompletableFuture<>(), current);
+        Load<V> running = loading.compute(key,
+                (k, existing) -> existing != null && existing.generation() >= current ? existing : load);
+        if (running != load) {
+            return running.future();
+        }
+        
+        boolean refresh;
+        synchronized (entries) {
+            refresh = entries.containsKey(key);
+        }
+        if (refresh) {
+            refresher.execute(() -> complete(key, load, true));
+        } else {
+            complete(key, load, false);
+        }
+        return load.future();
+    }
+    
+    private void complete(K key, Load<V> load, boolean refresh) {
+        try {
+            V value = loader.apply(key);
+            synchronized (entries) {
+                if (generation.get() == load.generation()) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+                }
+            }
+            load.future().complete(value);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            if (refresh) {
+                log.warn("Refreshing {} for key {} failed, serving the stale value: {}", name, key, e.getMessage());
+            }
+            load.future().completeExceptionally(e);
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+    
+    /**
+     * Waits for a load, rethrowing the loader's own exception (e.g. a not-found) to the caller.
+     */
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+    
+    private Counter counter(MeterRegistry meterRegistry, String meter, String result) {
+        return Counter.builder(meter).tag("cache", name).tag("result", result).register(meterRegistry);
+    }
+    
+    private record Entry<V>(V value, long loadedAt) {
+    }
+    
+    private record Load<V>(CompletableFuture<V> future, long generation) {
+    }
+}
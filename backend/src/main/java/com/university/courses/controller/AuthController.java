@@ -2,7 +2,10 @@ package com.university.courses.controller;
 
 import com.university.courses.dto.AuthenticationRequest;
 import com.university.courses.dto.AuthenticationResponse;
+import com.university.courses.dto.RefreshTokenRequest;
 import com.university.courses.dto.RegisterRequest;
+import com.university.courses.dto.TokenIntrospectionRequest;
+import com.university.courses.dto.TokenIntrospectionResponse;
 import com.university.courses.dto.UserDTO;
 import com.university.courses.service.AuthService;
 import jakarta.validation.Valid;
@@ -37,6 +40,33 @@ public class AuthController {
         return ResponseEntity.ok(authService.authenticate(request));
     }
     
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(
+            @Valid @RequestBody RefreshTokenRequest request
+    ) {
+        log.info("POST /api/auth/refresh - Refreshing tokens");
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest request
+    ) {
+        log.info("POST /api/auth/logout - Revoking tokens");
+        authService.logout(bearerToken(authorization), request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/logout/all")
+    public ResponseEntity<Void> logoutEverywhere(
+            @RequestHeader(value = "Authorization", required = false) String authorization
+    ) {
+        log.info("POST /api/auth/logout/all - Revoking all tokens of the caller");
+        authService.logoutEverywhere(bearerToken(authorization));
+        return ResponseEntity.noContent().build();
+    }
+    
     @GetMapping("/me")
     public ResponseEntity<UserDTO> getCurrentUser() {
         log.info("GET /api/auth/me - Getting current user");
@@ -48,4 +78,16 @@ public class AuthController {
         log.info("POST /api/auth/validate - Validating token");
         return ResponseEntity.ok(authService.validateToken(token));
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/introspect")
+    public ResponseEntity<TokenIntrospectionResponse> introspect(
+            @Valid @RequestBody TokenIntrospectionRequest request
+    ) {
+        log.info("POST /api/auth/introspect - Introspecting {} tokens", request.getTokens().size());
+        return ResponseEntity.ok(authService.introspect(request.getTokens()));
+    }
+    
+    private static String bearerToken(String authorization) {
+        return authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+    }
+}
@@ -3,19 +3,24 @@ package com.university.courses.controller;
 import com.university.courses.dto.CourseDTO;
 import com.university.courses.entity.Course;
 import com.university.courses.service.CourseService;
+import com.university.courses.service.ResourceVersions;
+import com.university.courses.web.CursorCodec;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
-import java.util.stream.Collectors;
+
+import static com.university.courses.web.ConditionalResponses.ifNoneMatch;
+import static com.university.courses.web.ConditionalResponses.ifNoneMatchEntity;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -25,41 +30,37 @@ import java.util.stream.Collectors;
 public class CourseController {
     
     private final CourseService courseService;
+    private final ResourceVersions resourceVersions;
+    private final CursorCodec cursorCodec;
     
     @GetMapping
     public ResponseEntity<List<CourseDTO>> getAllCourses(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest request) {
         
-        log.info("GET /api/courses - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        log.info("GET /api/courses - after: {}, size: {}, sortBy: {}, sortDir: {}", after, size, sortBy, sortDir);
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Course> coursePage = courseService.getAllCourses(pageable);
-        
-        List<CourseDTO> courseDTOs = coursePage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(courseDTOs);
+        ScrollPosition position = cursorCodec.decode(after, Course.class, sort);
+        return ifNoneMatchEntity(request, resourceVersions.catalogTag(), () ->
+                cursorCodec.ok(courseService.getCourseDTOs(position, sort, size), sort));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<CourseDTO> getCourseById(@PathVariable Long id) {
+    public ResponseEntity<CourseDTO> getCourseById(@PathVariable Long id, WebRequest request) {
         log.info("GET /api/courses/{}", id);
-        Course course = courseService.getCourseById(id);
-        return ResponseEntity.ok(convertToDTO(course));
+        return ifNoneMatch(request, resourceVersions.catalogTag(), () -> courseService.getCourseDTOById(id));
     }
     
     @GetMapping("/code/{code}")
-    public ResponseEntity<CourseDTO> getCourseByCode(@PathVariable String code) {
+    public ResponseEntity<CourseDTO> getCourseByCode(@PathVariable String code, WebRequest request) {
         log.info("GET /api/courses/code/{}", code);
-        Course course = courseService.getCourseByCode(code);
-        return ResponseEntity.ok(convertToDTO(course));
+        return ifNoneMatch(request, resourceVersions.catalogTag(), () -> courseService.getCourseDTOByCode(code));
     }
     
     @PostMapping
@@ -85,33 +86,34 @@ public class CourseController {
         return ResponseEntity.noContent().build();
     }
     
+    /**
+     * Ranked full-text search; {@code q} matches code, title, description and department, and
+     * {@code title} is still accepted as the query for older clients.
+     */
     @GetMapping("/search")
     public ResponseEntity<List<CourseDTO>> searchCourses(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String department,
             @RequestParam(required = false) Integer minCredits,
             @RequestParam(required = false) Integer maxCredits,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        
-        log.info("GET /api/courses/search - title: {}, department: {}, minCredits: {}, maxCredits: {}", 
-                title, department, minCredits, maxCredits);
-        
-        Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
-        Page<Course> coursePage = courseService.searchCourses(title, department, minCredits, maxCredits, pageable);
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         
-        List<CourseDTO> courseDTOs = coursePage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        String query = q != null ? q : title;
+        log.info("GET /api/courses/search - q: {}, department: {}, minCredits: {}, maxCredits: {}", 
+                query, department, minCredits, maxCredits);
         
-        return ResponseEntity.ok(courseDTOs);
+        Pageable pageable = PageRequest.of(page, size);
+        return ifNoneMatch(request, resourceVersions.catalogTag(), () ->
+                courseService.searchCourseDTOs(query, department, minCredits, maxCredits, pageable));
     }
     
     @GetMapping("/departments")
-    public ResponseEntity<List<String>> getAllDepartments() {
+    public ResponseEntity<List<String>> getAllDepartments(WebRequest request) {
         log.info("GET /api/courses/departments");
-        List<String> departments = courseService.getAllDepartments();
-        return ResponseEntity.ok(departments);
+        return ifNoneMatch(request, resourceVersions.catalogTag(), courseService::getAllDepartments);
     }
     
     private CourseDTO convertToDTO(Course course) {
@@ -125,11 +127,8 @@ public class CourseController {
         dto.setMaxEnrollment(course.getMaxEnrollment());
         dto.setCreatedAt(course.getCreatedAt());
         dto.setUpdatedAt(course.getUpdatedAt());
-        // Calculate current enrollment if needed
-        dto.setCurrentEnrollment(course.getRegistrations() != null ? 
-                (int) course.getRegistrations().stream()
-                        .filter(reg -> reg.getStatus() == com.university.courses.entity.Registration.RegistrationStatus.ENROLLED)
-                        .count() : 0);
+        dto.setCurrentEnrollment(course.getEnrolledCount());
+        dto.setWaitlistCount(course.getWaitlistCount());
         return dto;
     }
     
@@ -0,0 +1,57 @@
+package com.university.courses.controller;
+
+import com.university.courses.bulk.RecordFormat;
+import com.university.courses.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ExportController {
+    
+    private final ExportService exportService;
+    
+    @GetMapping("/students")
+    public WebAsyncTask<Void> exportStudents(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) {
+        log.info("GET /api/admin/export/students - Exporting students as {}", format);
+        RecordFormat recordFormat = RecordFormat.fromName(format);
+        WebAsyncTask<Void> export = exportService.exportStudents(recordFormat, response::getOutputStream);
+        attachment(response, "students", recordFormat);
+        return export;
+    }
+    
+    @GetMapping("/registrations")
+    public WebAsyncTask<Void> exportRegistrations(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) {
+        log.info("GET /api/admin/export/registrations - Exporting registrations as {}", format);
+        RecordFormat recordFormat = RecordFormat.fromName(format);
+        WebAsyncTask<Void> export = exportService.exportRegistrations(recordFormat, response::getOutputStream);
+        attachment(response, "registrations", recordFormat);
+        return export;
+    }
+    
+    @GetMapping("/results")
+    public WebAsyncTask<Void> exportResults(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) {
+        log.info("GET /api/admin/export/results - Exporting results as {}", format);
+        RecordFormat recordFormat = RecordFormat.fromName(format);
+        WebAsyncTask<Void> export = exportService.exportResults(recordFormat, response::getOutputStream);
+        attachment(response, "results", recordFormat);
+        return export;
+    }
+    
+    /**
+     * Sets the download headers once the export has its slot, so a 429 goes out as a plain error.
+     */
+    private static void attachment(HttpServletResponse response, String name, RecordFormat format) {
+        response.setContentType(format.mediaType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(name + "." + format.fileExtension()).build().toString());
+    }
+}
@@ -1,15 +1,18 @@
 package com.university.courses.controller;
 
+import com.university.courses.dto.BatchRegistrationReport;
+import com.university.courses.dto.BatchRegistrationRequest;
 import com.university.courses.dto.RegistrationDTO;
 import com.university.courses.entity.Registration;
+import com.university.courses.service.BatchRegistrationService;
 import com.university.courses.service.RegistrationService;
+import com.university.courses.web.CursorCodec;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,27 +28,24 @@ import java.util.stream.Collectors;
 public class RegistrationController {
     
     private final RegistrationService registrationService;
+    private final BatchRegistrationService batchRegistrationService;
+    private final CursorCodec cursorCodec;
     
     @GetMapping
     public ResponseEntity<List<RegistrationDTO>> getAllRegistrations(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir) {
         
-        log.info("GET /api/registrations - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        log.info("GET /api/registrations - after: {}, size: {}, sortBy: {}, sortDir: {}", after, size, sortBy, sortDir);
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Registration> registrationPage = registrationService.getAllRegistrations(pageable);
-        
-        List<RegistrationDTO> registrationDTOs = registrationPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(registrationDTOs);
+        ScrollPosition position = cursorCodec.decode(after, Registration.class, sort);
+        Window<Registration> window = registrationService.getRegistrations(position, sort, size);
+        return cursorCodec.ok(window.map(this::convertToDTO), sort);
     }
     
     @GetMapping("/{id}")
@@ -87,6 +87,12 @@ public class RegistrationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(registration));
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<BatchRegistrationReport> createRegistrations(@Valid @RequestBody BatchRegistrationRequest request) {
+        log.info("POST /api/registrations/batch - Creating {} registrations", request.getRegistrations().size());
+        return ResponseEntity.ok(batchRegistrationService.enroll(request.getRegistrations()));
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<RegistrationDTO> updateRegistration(@PathVariable Long id, @Valid @RequestBody RegistrationDTO registrationDTO) {
         log.info("PUT /api/registrations/{} - Updating registration", id);
@@ -3,13 +3,16 @@ package com.university.courses.controller;
 import com.university.courses.dto.ResultDTO;
 import com.university.courses.entity.Result;
 import com.university.courses.service.ResultService;
+import com.university.courses.web.CursorCodec;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,27 +29,23 @@ import java.util.stream.Collectors;
 public class ResultController {
     
     private final ResultService resultService;
+    private final CursorCodec cursorCodec;
     
     @GetMapping
     public ResponseEntity<List<ResultDTO>> getAllResults(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir) {
         
-        log.info("GET /api/results - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        log.info("GET /api/results - after: {}, size: {}, sortBy: {}, sortDir: {}", after, size, sortBy, sortDir);
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Result> resultPage = resultService.getAllResults(pageable);
-        
-        List<ResultDTO> resultDTOs = resultPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(resultDTOs);
+        ScrollPosition position = cursorCodec.decode(after, Result.class, sort);
+        Window<Result> window = resultService.getResults(position, sort, size);
+        return cursorCodec.ok(window.map(this::convertToDTO), sort);
     }
     
     @GetMapping("/{id}")
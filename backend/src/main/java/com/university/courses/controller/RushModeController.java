@@ -0,0 +1,30 @@
+package com.university.courses.controller;
+
+import com.university.courses.dto.RushModeStatusDTO;
+import com.university.courses.service.EnrollmentAdmissionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/rush-mode")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class RushModeController {
+    
+    private final EnrollmentAdmissionService enrollmentAdmissionService;
+    
+    @GetMapping
+    public ResponseEntity<RushModeStatusDTO> getStatus() {
+        log.info("GET /api/admin/rush-mode - Getting rush mode status");
+        return ResponseEntity.ok(enrollmentAdmissionService.getStatus());
+    }
+    
+    @PutMapping
+    public ResponseEntity<RushModeStatusDTO> setEnabled(@RequestParam boolean enabled) {
+        log.info("PUT /api/admin/rush-mode - Setting rush mode enabled: {}", enabled);
+        return ResponseEntity.ok(enrollmentAdmissionService.setEnabled(enabled));
+    }
+}
@@ -1,19 +1,27 @@
 package com.university.courses.controller;
 
+import com.university.courses.bulk.RecordFormat;
 import com.university.courses.dto.StudentDTO;
+import com.university.courses.dto.StudentImportReport;
 import com.university.courses.entity.Student;
+import com.university.courses.service.StudentImportService;
 import com.university.courses.service.StudentService;
+import com.university.courses.web.CursorCodec;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,27 +33,24 @@ import java.util.stream.Collectors;
 public class StudentController {
     
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final CursorCodec cursorCodec;
     
     @GetMapping
     public ResponseEntity<List<StudentDTO>> getAllStudents(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir) {
         
-        log.info("GET /api/students - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        log.info("GET /api/students - after: {}, size: {}, sortBy: {}, sortDir: {}", after, size, sortBy, sortDir);
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Student> studentPage = studentService.getAllStudents(pageable);
-        
-        List<StudentDTO> studentDTOs = studentPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(studentDTOs);
+        ScrollPosition position = cursorCodec.decode(after, Student.class, sort);
+        Window<Student> window = studentService.getStudents(position, sort, size);
+        return cursorCodec.ok(window.map(this::convertToDTO), sort);
     }
     
     @GetMapping("/{id}")
@@ -70,6 +75,16 @@ public class StudentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedStudent));
     }
     
+    /**
+     * Upserts students from a registrar extract keyed on student ID; re-running a file is safe.
+     */
+    @PostMapping(value = "/import", consumes = {RecordFormat.CSV_MEDIA_TYPE, RecordFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<StudentImportReport> importStudents(HttpServletRequest request) throws IOException {
+        log.info("POST /api/students/import - Importing students ({})", request.getContentType());
+        RecordFormat format = RecordFormat.fromContentType(request.getContentType());
+        return ResponseEntity.ok(studentImportService.importStudents(request.getInputStream(), format));
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<StudentDTO> updateStudent(@PathVariable Long id, @Valid @RequestBody StudentDTO studentDTO) {
         log.info("PUT /api/students/{} - Updating student", id);
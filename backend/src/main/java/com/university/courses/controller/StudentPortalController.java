@@ -1,17 +1,33 @@
 package com.university.courses.controller;
 
 import com.university.courses.dto.CourseDTO;
+import com.university.courses.dto.EnrollmentTicketDTO;
 import com.university.courses.dto.RegistrationDTO;
 import com.university.courses.dto.ResultDTO;
+import com.university.courses.dto.StudentDashboardDTO;
+import com.university.courses.security.CurrentStudentContext;
+import com.university.courses.service.EnrollmentAdmissionService;
+import com.university.courses.service.ResourceVersions;
+import com.university.courses.service.SeatAvailabilityStream;
 import com.university.courses.service.StudentPortalService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.university.courses.web.ConditionalResponses.ifNoneMatch;
 
 @RestController
 @RequestMapping("/api/student")
@@ -22,35 +38,95 @@ import java.util.List;
 public class StudentPortalController {
     
     private final StudentPortalService studentPortalService;
+    private final EnrollmentAdmissionService enrollmentAdmissionService;
+    private final SeatAvailabilityStream seatAvailabilityStream;
+    private final ResourceVersions resourceVersions;
+    private final CurrentStudentContext currentStudentContext;
+    
+    @Value("${registration.rush.max-hold:10000}")
+    private long maxHoldMillis;
+    
+    @GetMapping("/dashboard")
+    public ResponseEntity<StudentDashboardDTO> getDashboard(
+            @RequestParam(defaultValue = "50") int availableSize,
+            WebRequest request) {
+        log.info("GET /api/student/dashboard - Getting student dashboard");
+        Pageable pageable = PageRequest.of(0, availableSize, Sort.by("title").ascending());
+        return ifNoneMatch(request, coursesTag(), () -> studentPortalService.getDashboard(pageable));
+    }
     
     @GetMapping("/courses/available")
-    public ResponseEntity<List<CourseDTO>> getAvailableCourses() {
-        log.info("GET /api/student/courses/available - Getting available courses for student");
-        return ResponseEntity.ok(studentPortalService.getAvailableCoursesForStudent());
+    public ResponseEntity<List<CourseDTO>> getAvailableCourses(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) Integer minCredits,
+            @RequestParam(required = false) Integer maxCredits,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            WebRequest request) {
+        
+        log.info("GET /api/student/courses/available - title: {}, department: {}, minCredits: {}, maxCredits: {}, page: {}, size: {}",
+                title, department, minCredits, maxCredits, page, size);
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
+        return ifNoneMatch(request, coursesTag(), () -> studentPortalService.getAvailableCoursesForStudent(
+                title, department, minCredits, maxCredits, pageable));
+    }
+    
+    /**
+     * Server-Sent Events: a {@code snapshot} of every course's seats, then {@code seats} updates as they change.
+     */
+    @GetMapping(value = "/courses/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatAvailability() {
+        log.info("GET /api/student/courses/seats/stream - Subscribing to seat availability");
+        return seatAvailabilityStream.subscribe();
     }
     
     @GetMapping("/courses/enrolled")
-    public ResponseEntity<List<CourseDTO>> getEnrolledCourses() {
+    public ResponseEntity<List<CourseDTO>> getEnrolledCourses(WebRequest request) {
         log.info("GET /api/student/courses/enrolled - Getting enrolled courses for student");
-        return ResponseEntity.ok(studentPortalService.getEnrolledCoursesForStudent());
+        return ifNoneMatch(request, coursesTag(), studentPortalService::getEnrolledCoursesForStudent);
     }
     
     @GetMapping("/registrations")
-    public ResponseEntity<List<RegistrationDTO>> getMyRegistrations() {
+    public ResponseEntity<List<RegistrationDTO>> getMyRegistrations(WebRequest request) {
         log.info("GET /api/student/registrations - Getting student registrations");
-        return ResponseEntity.ok(studentPortalService.getStudentRegistrations());
+        return ifNoneMatch(request, recordsTag(), studentPortalService::getStudentRegistrations);
     }
     
     @GetMapping("/results")
-    public ResponseEntity<List<ResultDTO>> getMyResults() {
+    public ResponseEntity<List<ResultDTO>> getMyResults(WebRequest request) {
         log.info("GET /api/student/results - Getting student results");
-        return ResponseEntity.ok(studentPortalService.getStudentResults());
+        return ifNoneMatch(request, recordsTag(), studentPortalService::getStudentResults);
     }
     
+    /**
+     * Enrolls immediately, or in rush mode queues the request and returns a ticket. {@code wait} holds
+     * the response for up to that many milliseconds in case the ticket completes quickly; the hold runs
+     * asynchronously, so waiting requests do not occupy servlet threads. A ticket that has already
+     * failed is reported with the error's own status rather than as accepted.
+     */
     @PostMapping("/courses/{courseId}/enroll")
-    public ResponseEntity<RegistrationDTO> enrollInCourse(@PathVariable Long courseId) {
+    public CompletableFuture<ResponseEntity<?>> enrollInCourse(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "0") long wait
+    ) {
         log.info("POST /api/student/courses/{}/enroll - Student enrolling in course", courseId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(studentPortalService.enrollInCourse(courseId));
+        if (!enrollmentAdmissionService.isEnabled()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.CREATED).body(studentPortalService.enrollInCourse(courseId)));
+        }
+        
+        return enrollmentAdmissionService.submit(courseId, Math.min(Math.max(wait, 0), maxHoldMillis))
+                .<ResponseEntity<?>>thenApply(ticket -> EnrollmentTicketDTO.COMPLETED.equals(ticket.getStatus())
+                        ? ResponseEntity.status(HttpStatus.CREATED).body(ticket.getRegistration())
+                        : ResponseEntity.status(HttpStatus.ACCEPTED).body(ticket));
+    }
+    
+    @GetMapping("/enrollment-tickets/{ticketId}")
+    public ResponseEntity<EnrollmentTicketDTO> getEnrollmentTicket(@PathVariable String ticketId) {
+        log.info("GET /api/student/enrollment-tickets/{} - Polling enrollment ticket", ticketId);
+        return ResponseEntity.ok(enrollmentAdmissionService.getTicket(ticketId));
     }
     
     @PostMapping("/courses/{courseId}/unenroll")
@@ -59,4 +135,14 @@ public class StudentPortalController {
         studentPortalService.unenrollFromCourse(courseId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+    
+    /** Version stamp for responses that list courses (with seat counts) for the current student. */
+    private String coursesTag() {
+        return resourceVersions.studentCoursesTag(currentStudentContext.requireStudentId());
+    }
+    
+    /** Version stamp for the current student's registrations and results. */
+    private String recordsTag() {
+        return resourceVersions.studentRecordsTag(currentStudentContext.requireStudentId());
+    }
+}
@@ -0,0 +1,37 @@
+package com.university.courses.controller;
+
+import com.university.courses.dto.SuggestionDTO;
+import com.university.courses.service.SuggestionIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/suggest")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SuggestController {
+    
+    private static final int MAX_LIMIT = 50;
+    
+    private final SuggestionIndex suggestionIndex;
+    
+    /**
+     * Typeahead completions for the admin search bar; answered from memory, never from the database.
+     */
+    @GetMapping
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Set<SuggestionDTO.Type> types,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/suggest - Suggesting completions for: {}", q);
+        Set<SuggestionDTO.Type> requested = types == null || types.isEmpty() ? EnumSet.allOf(SuggestionDTO.Type.class) : types;
+        return ResponseEntity.ok(suggestionIndex.suggest(q, requested, Math.min(Math.max(limit, 1), MAX_LIMIT)));
+    }
+}
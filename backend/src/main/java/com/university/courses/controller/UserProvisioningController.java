@@ -0,0 +1,29 @@
+package com.university.courses.controller;
+
+import com.university.courses.bulk.RecordFormat;
+import com.university.courses.dto.BulkProvisioningReport;
+import com.university.courses.service.BulkProvisioningService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class UserProvisioningController {
+    
+    private final BulkProvisioningService bulkProvisioningService;
+    
+    @PostMapping(value = "/bulk", consumes = {RecordFormat.CSV_MEDIA_TYPE, RecordFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<BulkProvisioningReport> provisionUsers(HttpServletRequest request) throws IOException {
+        log.info("POST /api/admin/users/bulk - Bulk provisioning users ({})", request.getContentType());
+        RecordFormat format = RecordFormat.fromContentType(request.getContentType());
+        return ResponseEntity.ok(bulkProvisioningService.provision(request.getInputStream(), format));
+    }
+}
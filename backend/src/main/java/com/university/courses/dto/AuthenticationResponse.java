@@ -10,6 +10,8 @@ import lombok.NoArgsConstructor;
 public class AuthenticationResponse {
     
     private String token;
+    private String refreshToken;
+    private long expiresIn;
     private String username;
     private String email;
     private String role;
@@ -0,0 +1,38 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-pair outcomes of a batch enrollment, in the order the pairs were submitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRegistrationReport {
+    
+    private int total;
+    private int enrolled;
+    private int waitlisted;
+    private int rejected;
+    private List<PairResult> results = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PairResult {
+        public static final String ENROLLED = "ENROLLED";
+        public static final String WAITLISTED = "WAITLISTED";
+        public static final String DUPLICATE = "DUPLICATE";
+        public static final String STUDENT_NOT_FOUND = "STUDENT_NOT_FOUND";
+        public static final String COURSE_NOT_FOUND = "COURSE_NOT_FOUND";
+        
+        private Long studentId;
+        private Long courseId;
+        private String status;
+    }
+}
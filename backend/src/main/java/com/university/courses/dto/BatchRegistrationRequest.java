@@ -0,0 +1,20 @@
+package com.university.courses.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRegistrationRequest {
+    
+    @NotEmpty(message = "At least one registration is required")
+    @Size(max = 5000, message = "At most 5000 registrations can be submitted per batch")
+    private List<@Valid RegistrationDTO> registrations;
+}
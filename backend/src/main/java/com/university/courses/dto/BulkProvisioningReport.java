@@ -0,0 +1,44 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProvisioningReport {
+    
+    private int totalRows;
+    private int created;
+    private int failed;
+    private List<RowResult> rows = new ArrayList<>();
+    
+    public void addCreated(long line, String username) {
+        rows.add(new RowResult(line, username, RowResult.CREATED, null));
+        created++;
+        totalRows++;
+    }
+    
+    public void addFailed(long line, String username, String message) {
+        rows.add(new RowResult(line, username, RowResult.FAILED, message));
+        failed++;
+        totalRows++;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        public static final String CREATED = "CREATED";
+        public static final String FAILED = "FAILED";
+        
+        private long line;
+        private String username;
+        private String status;
+        private String message;
+    }
+}
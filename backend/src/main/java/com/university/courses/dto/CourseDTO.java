@@ -35,6 +35,8 @@ public class CourseDTO {
     
     private Integer currentEnrollment;
     
+    private Integer waitlistCount;
+    
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
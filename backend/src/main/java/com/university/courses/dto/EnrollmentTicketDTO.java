@@ -0,0 +1,25 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentTicketDTO {
+    public static final String QUEUED = "QUEUED";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    
+    private String ticketId;
+    private Long courseId;
+    private String status;
+    /** Requests ahead of this one in the course queue; 0 once processing has started. */
+    private long position;
+    private long estimatedWaitSeconds;
+    /** The resulting registration once the ticket has completed. */
+    private RegistrationDTO registration;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RushModeStatusDTO {
+    
+    private boolean enabled;
+    /** Waiting requests per course id. */
+    private Map<Long, Integer> queueDepths;
+    private int outstandingTickets;
+}
@@ -0,0 +1,19 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAvailabilityDTO {
+    
+    private Long courseId;
+    /** Null when the course has no enrollment cap. */
+    private Integer maxEnrollment;
+    private int enrolled;
+    private int waitlisted;
+    /** Null when the course has no enrollment cap. */
+    private Integer available;
+}
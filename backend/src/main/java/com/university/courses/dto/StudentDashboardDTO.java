@@ -0,0 +1,26 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentDashboardDTO {
+    
+    /** First page of available courses, as returned by {@code /api/student/courses/available}. */
+    private List<CourseDTO> availableCourses;
+    private List<CourseDTO> enrolledCourses;
+    private List<RegistrationDTO> registrations;
+    private List<ResultDTO> results;
+    /** Average GPA points over all results; null when there are none. */
+    private BigDecimal gpa;
+    /** Credits of currently ENROLLED courses. */
+    private int enrolledCredits;
+    /** Credits of COMPLETED courses. */
+    private int completedCredits;
+}
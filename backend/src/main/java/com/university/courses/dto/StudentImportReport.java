@@ -0,0 +1,54 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a student import. Extracts run to hundreds of thousands of rows, so only failed rows
+ * are listed individually, and only the first {@code maxErrors} of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportReport {
+    
+    private int totalRows;
+    private int created;
+    private int updated;
+    private int failed;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+    
+    public void addCreated() {
+        created++;
+        totalRows++;
+    }
+    
+    public void addUpdated() {
+        updated++;
+        totalRows++;
+    }
+    
+    public void addFailed(long line, String studentId, String message, int maxErrors) {
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, studentId, message));
+        } else {
+            errorsTruncated = true;
+        }
+        failed++;
+        totalRows++;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String studentId;
+        private String message;
+    }
+}
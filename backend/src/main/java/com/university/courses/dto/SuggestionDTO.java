@@ -0,0 +1,23 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    
+    public enum Type {
+        STUDENT,
+        COURSE
+    }
+    
+    private Type type;
+    private Long id;
+    /** Student full name or course code. */
+    private String label;
+    /** Student ID or course title. */
+    private String detail;
+}
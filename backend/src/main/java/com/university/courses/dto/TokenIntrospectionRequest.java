@@ -0,0 +1,19 @@
+package com.university.courses.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenIntrospectionRequest {
+    
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = 500, message = "At most 500 tokens can be introspected per request")
+    private List<String> tokens;
+}
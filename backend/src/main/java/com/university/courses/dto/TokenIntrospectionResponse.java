@@ -0,0 +1,45 @@
+package com.university.courses.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Introspection results in the same order as the submitted tokens.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenIntrospectionResponse {
+    
+    private List<TokenStatus> results = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TokenStatus {
+        public static final String EXPIRED = "EXPIRED";
+        public static final String INVALID = "INVALID";
+        public static final String REVOKED = "REVOKED";
+        public static final String REFRESH_TOKEN = "REFRESH_TOKEN";
+        
+        private boolean active;
+        private String subject;
+        private String role;
+        private Long userId;
+        private Long studentId;
+        /** Expiry as epoch seconds. */
+        private Long expiresAt;
+        /** Why the token is inactive; null for active tokens. */
+        private String reason;
+        
+        public static TokenStatus inactive(String reason) {
+            TokenStatus status = new TokenStatus();
+            status.setReason(reason);
+            return status;
+        }
+    }
+}
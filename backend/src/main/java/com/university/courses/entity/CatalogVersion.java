@@ -0,0 +1,31 @@
+package com.university.courses.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row of revision counters behind catalog ETags: {@code definitionsRevision} moves when a
+ * course is created, edited or deleted, {@code countsRevision} when seat or waitlist counts change.
+ * Both only grow, so every instance derives the same tag from the same state.
+ */
+@Entity
+@Table(name = "catalog_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersion {
+    
+    /** Id of the one row the table holds. */
+    public static final long ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "definitions_revision", nullable = false)
+    private Long definitionsRevision;
+    
+    @Column(name = "counts_revision", nullable = false)
+    private Long countsRevision;
+}
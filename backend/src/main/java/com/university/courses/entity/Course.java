@@ -45,6 +45,19 @@ public class Course {
     @Column(name = "max_enrollment")
     private Integer maxEnrollment;
     
+    /**
+     * Denormalized count of ENROLLED registrations, and the authority on free seats: {@code SeatLedger}
+     * changes it with conditional updates in the same transaction as the registration change.
+     */
+    @Column(name = "enrolled_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer enrolledCount = 0;
+    
+    /** Denormalized count of WAITLISTED registrations, written through {@code CourseRepository.adjustCounts}. */
+    @Column(name = "waitlist_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer waitlistCount = 0;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -10,6 +10,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "registrations", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"student_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_registrations_course_status", columnList = "course_id, status")
 })
 @Data
 @NoArgsConstructor
@@ -32,7 +34,7 @@ public class Registration {
     private LocalDateTime registrationDate;
     
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
     private RegistrationStatus status;
     
     @Column(length = 500)
@@ -50,6 +52,6 @@ public class Registration {
     }
     
     public enum RegistrationStatus {
-        ENROLLED, DROPPED, COMPLETED
+        ENROLLED, DROPPED, COMPLETED, WAITLISTED
     }
 }
\ No newline at end of file
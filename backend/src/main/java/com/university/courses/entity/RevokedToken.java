@@ -0,0 +1,45 @@
+package com.university.courses.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked token (by jti) or a per-user cutoff that revokes every token issued before {@code revokedAt}.
+ * Rows are only needed until the longest-lived token they could match has expired.
+ */
+@Entity
+@Table(name = "revoked_tokens", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"type", "subject"})
+}, indexes = {
+    @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RevocationType type;
+    
+    @Column(nullable = false, length = 100)
+    private String subject;
+    
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public enum RevocationType {
+        TOKEN, USER
+    }
+}
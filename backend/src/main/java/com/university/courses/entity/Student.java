@@ -57,6 +57,11 @@ public class Student {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    /** Bumped whenever the student's profile, registrations or results change; the portal's ETags read it. */
+    @Column(name = "records_revision", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long recordsRevision = 0L;
+    
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Registration> registrations;
     
@@ -0,0 +1,10 @@
+package com.university.courses.event;
+
+/**
+ * Published by the periodic catalog version refresh when the stamp moved in ways this instance's own
+ * writes do not explain, i.e. another instance wrote. In-memory catalog caches should drop the
+ * affected entries before the new stamp is served: everything when {@code definitionsChanged},
+ * otherwise only what shows seat counts.
+ */
+public record CatalogStampChangedEvent(boolean definitionsChanged) {
+}
@@ -0,0 +1,8 @@
+package com.university.courses.event;
+
+/**
+ * Published when a course is created, updated or deleted. Listeners that care about committed
+ * state should use {@code @TransactionalEventListener}.
+ */
+public record CourseCatalogChangedEvent(Long courseId) {
+}
@@ -0,0 +1,8 @@
+package com.university.courses.event;
+
+/**
+ * Published when a course's denormalized enrolled or waitlisted count is adjusted. Listeners that
+ * care about committed state should use {@code @TransactionalEventListener}.
+ */
+public record CourseCountsChangedEvent(Long courseId) {
+}
@@ -0,0 +1,8 @@
+package com.university.courses.event;
+
+/**
+ * Published when a course's free seats or waitlist may have changed. Listeners that care about
+ * committed state should use {@code @TransactionalEventListener}.
+ */
+public record CourseSeatsChangedEvent(Long courseId) {
+}
@@ -0,0 +1,10 @@
+package com.university.courses.event;
+
+import java.util.Collection;
+
+/**
+ * Published when students are created, updated or deleted, including by bulk imports. Listeners
+ * that care about committed state should use {@code @TransactionalEventListener}.
+ */
+public record StudentsChangedEvent(Collection<Long> studentIds) {
+}
@@ -0,0 +1,31 @@
+package com.university.courses.repository;
+
+import com.university.courses.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+    
+    /**
+     * Returns {@code definitions/counts}, read past the persistence context so a bump made earlier
+     * in the same session is never hidden by a cached entity.
+     */
+    @Query(value = "SELECT CONCAT(definitions_revision, '/', counts_revision) FROM catalog_version WHERE id = 1",
+           nativeQuery = true)
+    Optional<String> findStamp();
+    
+    @Modifying
+    @Query(value = "UPDATE catalog_version SET definitions_revision = definitions_revision + 1 WHERE id = 1",
+           nativeQuery = true)
+    int bumpDefinitions();
+    
+    @Modifying
+    @Query(value = "UPDATE catalog_version SET counts_revision = counts_revision + 1 WHERE id = 1",
+           nativeQuery = true)
+    int bumpCounts();
+}
@@ -1,35 +1,76 @@
 package com.university.courses.repository;
 
+import com.university.courses.dto.CourseDTO;
 import com.university.courses.entity.Course;
+import com.university.courses.entity.Registration.RegistrationStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
     
+    /** Reads course rows straight into DTOs; seat counts come from the denormalized columns. */
+    String SELECT_COURSE_DTO =
+           "SELECT new com.university.courses.dto.CourseDTO(c.id, c.code, c.title, c.description, " +
+           "c.credits, c.department, c.maxEnrollment, c.enrolledCount, c.waitlistCount, c.createdAt, c.updatedAt) ";
+    
+    String COURSE_FILTERS =
+           "(:title IS NULL OR LOWER(c.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:department IS NULL OR LOWER(c.department) = LOWER(:department)) AND " +
+           "(:minCredits IS NULL OR c.credits >= :minCredits) AND " +
+           "(:maxCredits IS NULL OR c.credits <= :maxCredits)";
+    
+    String AVAILABLE_FOR_STUDENT_FILTER =
+           "NOT EXISTS (SELECT 1 FROM Registration r WHERE r.course = c AND r.student.id = :studentId " +
+           "AND r.status IN :statuses) AND " + COURSE_FILTERS;
+    
+    /**
+     * Keyset page: seeks past {@code position} on the sort keys plus id, with no offset and no count query.
+     */
+    Window<Course> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    
     Optional<Course> findByCode(String code);
     
     boolean existsByCode(String code);
     
     List<Course> findByDepartment(String department);
     
-    Page<Course> findByTitleContainingIgnoreCase(String title, Pageable pageable);
-    
     Page<Course> findByDepartmentIgnoreCase(String department, Pageable pageable);
     
-    @Query("SELECT c FROM Course c WHERE " +
-           "(:title IS NULL OR LOWER(c.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
-           "(:department IS NULL OR LOWER(c.department) = LOWER(:department)) AND " +
-           "(:minCredits IS NULL OR c.credits >= :minCredits) AND " +
-           "(:maxCredits IS NULL OR c.credits <= :maxCredits)")
-    Page<Course> findCoursesWithFilters(
+    /**
+     * One page of courses as DTOs. Returns a list rather than a page, so no count query is issued.
+     */
+    @Query(SELECT_COURSE_DTO + "FROM Course c")
+    List<CourseDTO> findCourseDTOs(Pageable pageable);
+    
+    @Query(SELECT_COURSE_DTO + "FROM Course c WHERE c.id = :id")
+    Optional<CourseDTO> findCourseDTOById(@Param("id") Long id);
+    
+    @Query("SELECT c.id FROM Course c WHERE c.code = :code")
+    Optional<Long> findIdByCode(@Param("code") String code);
+    
+    /**
+     * Courses the student holds no registration in any of {@code statuses} for, read straight into DTOs;
+     * seat counts come from the denormalized columns. Returns a list rather than a page, so this is a
+     * single query with no count.
+     */
+    @Query(SELECT_COURSE_DTO + "FROM Course c WHERE " + AVAILABLE_FOR_STUDENT_FILTER)
+    List<CourseDTO> findAvailableForStudent(
+        @Param("studentId") Long studentId,
+        @Param("statuses") Collection<RegistrationStatus> statuses,
         @Param("title") String title,
         @Param("department") String department,
         @Param("minCredits") Integer minCredits,
@@ -37,6 +78,38 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
         Pageable pageable
     );
     
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Takes one seat if the course has one free. Returns 0 when the course is full or does not exist.
+     * The update's row lock queues concurrent callers, on any instance, behind each other.
+     */
+    @Modifying
+    @Query(value = "UPDATE courses SET enrolled_count = enrolled_count + 1 " +
+                   "WHERE id = :courseId AND (max_enrollment IS NULL OR enrolled_count < max_enrollment)",
+           nativeQuery = true)
+    int takeSeat(@Param("courseId") Long courseId);
+    
+    /**
+     * Locks the course row until the end of the transaction and returns how many of {@code wanted}
+     * seats are free, or empty when the course does not exist.
+     */
+    @Query(value = "SELECT CASE WHEN max_enrollment IS NULL THEN :wanted " +
+                   "ELSE LEAST(:wanted, GREATEST(max_enrollment - enrolled_count, 0)) END " +
+                   "FROM courses WHERE id = :courseId FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockFreeSeats(@Param("courseId") Long courseId, @Param("wanted") int wanted);
+    
+    @Modifying
+    @Query(value = "UPDATE courses SET enrolled_count = enrolled_count + :enrolledDelta, " +
+                   "waitlist_count = waitlist_count + :waitlistDelta " +
+                   "WHERE id = :courseId", nativeQuery = true)
+    int adjustCounts(
+        @Param("courseId") Long courseId,
+        @Param("enrolledDelta") int enrolledDelta,
+        @Param("waitlistDelta") int waitlistDelta
+    );
+    
     @Query("SELECT DISTINCT c.department FROM Course c ORDER BY c.department")
     List<String> findAllDepartments();
-}
\ No newline at end of file
+}
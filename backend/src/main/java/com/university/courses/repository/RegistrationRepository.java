@@ -2,19 +2,27 @@ package com.university.courses.repository;
 
 import com.university.courses.entity.Registration;
 import com.university.courses.entity.Registration.RegistrationStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RegistrationRepository extends JpaRepository<Registration, Long> {
     
+    Window<Registration> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    
     Optional<Registration> findByStudentIdAndCourseId(Long studentId, Long courseId);
     
     List<Registration> findByStudentId(Long studentId);
@@ -32,6 +40,33 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     @Query("SELECT COUNT(r) FROM Registration r WHERE r.course.id = :courseId AND r.status = :status")
     long countByCourseIdAndStatus(@Param("courseId") Long courseId, @Param("status") RegistrationStatus status);
     
+    @Query("SELECT r.course.id FROM Registration r WHERE r.student.id = :studentId AND r.status = :status")
+    List<Long> findCourseIdsByStudentIdAndStatus(@Param("studentId") Long studentId, @Param("status") RegistrationStatus status);
+    
+    @Query("SELECT r.id FROM Registration r WHERE r.course.id = :courseId AND r.status = :status ORDER BY r.id")
+    List<Long> findIdsByCourseIdAndStatus(
+        @Param("courseId") Long courseId,
+        @Param("status") RegistrationStatus status,
+        Pageable pageable
+    );
+    
+    @Query("SELECT DISTINCT r.student.id FROM Registration r WHERE r.id IN :ids")
+    List<Long> findStudentIdsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT DISTINCT r.course.id FROM Registration r WHERE r.status = :status")
+    List<Long> findCourseIdsByStatus(@Param("status") RegistrationStatus status);
+    
+    /**
+     * Moves the given registrations to {@code to}, skipping any that are no longer in {@code from}.
+     */
+    @Modifying
+    @Query("UPDATE Registration r SET r.status = :to WHERE r.id IN :ids AND r.status = :from")
+    int updateStatus(
+        @Param("ids") List<Long> ids,
+        @Param("from") RegistrationStatus from,
+        @Param("to") RegistrationStatus to
+    );
+    
     @Query("SELECT r FROM Registration r JOIN FETCH r.student JOIN FETCH r.course WHERE r.student.id = :studentId")
     List<Registration> findByStudentIdWithDetails(@Param("studentId") Long studentId);
     
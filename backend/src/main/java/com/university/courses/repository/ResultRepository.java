@@ -1,8 +1,12 @@
 package com.university.courses.repository;
 
 import com.university.courses.entity.Result;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,6 +19,8 @@ import java.util.Optional;
 @Repository
 public interface ResultRepository extends JpaRepository<Result, Long> {
     
+    Window<Result> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    
     Optional<Result> findByRegistrationId(Long registrationId);
     
     @Query("SELECT r FROM Result r JOIN r.registration reg WHERE reg.student.id = :studentId")
@@ -0,0 +1,25 @@
+package com.university.courses.repository;
+
+import com.university.courses.entity.RevokedToken;
+import com.university.courses.entity.RevokedToken.RevocationType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    
+    Optional<RevokedToken> findByTypeAndSubject(RevocationType type, String subject);
+    
+    List<RevokedToken> findByRevokedAtAfter(LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,19 +1,27 @@
 package com.university.courses.repository;
 
 import com.university.courses.entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     
+    Window<Student> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    
     Optional<Student> findByStudentId(String studentId);
     
     Optional<Student> findByEmail(String email);
@@ -26,20 +34,37 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     Page<Student> findByDepartmentIgnoreCase(String department, Pageable pageable);
     
+    /**
+     * Department and year filters only; name searches go through {@code StudentSearchIndex}.
+     */
     @Query("SELECT s FROM Student s WHERE " +
-           "(:name IS NULL OR LOWER(CONCAT(s.firstName, ' ', s.lastName)) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
            "(:department IS NULL OR LOWER(s.department) = LOWER(:department)) AND " +
            "(:enrollmentYear IS NULL OR s.enrollmentYear = :enrollmentYear)")
     Page<Student> findStudentsWithFilters(
-        @Param("name") String name,
         @Param("department") String department,
         @Param("enrollmentYear") Integer enrollmentYear,
         Pageable pageable
     );
     
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT LOWER(s.studentId) FROM Student s")
+    List<String> findAllStudentIdsLowercase();
+    
+    @Query("SELECT LOWER(s.email) FROM Student s")
+    List<String> findAllEmailsLowercase();
+    
     @Query("SELECT DISTINCT s.department FROM Student s ORDER BY s.department")
     List<String> findAllDepartments();
     
     @Query("SELECT DISTINCT s.enrollmentYear FROM Student s WHERE s.enrollmentYear IS NOT NULL ORDER BY s.enrollmentYear DESC")
     List<Integer> findAllEnrollmentYears();
+    
+    @Modifying
+    @Query(value = "UPDATE students SET records_revision = records_revision + 1 WHERE id IN (:ids)", nativeQuery = true)
+    int bumpRecordsRevision(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT s.recordsRevision FROM Student s WHERE s.id = :id")
+    Optional<Long> findRecordsRevision(@Param("id") Long id);
 }
@@ -2,8 +2,11 @@ package com.university.courses.repository;
 
 import com.university.courses.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +21,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     Optional<User> findByStudentId(Long studentId);
+    
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.student WHERE u.id = :id")
+    Optional<User> findByIdWithStudent(@Param("id") Long id);
+    
+    @Query("SELECT LOWER(u.username) FROM User u")
+    List<String> findAllUsernamesLowercase();
+    
+    @Query("SELECT LOWER(u.email) FROM User u")
+    List<String> findAllEmailsLowercase();
 }
\ No newline at end of file
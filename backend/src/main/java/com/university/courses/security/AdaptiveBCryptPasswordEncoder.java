@@ -0,0 +1,32 @@
+package com.university.courses.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder that reports any stored hash whose cost differs from the configured strength as
+ * needing an upgrade, so {@code DaoAuthenticationProvider} rehashes it transparently on the next login.
+ * The stock encoder only upgrades hashes with a lower cost.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    
+    private final int strength;
+    
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            // Format: $2a$NN$<salt+hash>
+            int cost = Integer.parseInt(encodedPassword.substring(4, 6));
+            return cost != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
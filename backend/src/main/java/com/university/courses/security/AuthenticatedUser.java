@@ -0,0 +1,51 @@
+package com.university.courses.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from verified token claims, so authenticated requests do not need to load the user row.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal, Serializable {
+    
+    private final Long userId;
+    private final String username;
+    private final String role;
+    private final Long studentId;
+    
+    /**
+     * Returns {@code null} when the token predates the role/userId claims and must be resolved from the database.
+     */
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        String role = claims.get(JwtService.ROLE_CLAIM, String.class);
+        Long userId = claims.get(JwtService.USER_ID_CLAIM, Long.class);
+        if (role == null || userId == null) {
+            return null;
+        }
+        return new AuthenticatedUser(
+                userId,
+                claims.getSubject(),
+                role,
+                claims.get(JwtService.STUDENT_ID_CLAIM, Long.class)
+        );
+    }
+    
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+    
+    @Override
+    public String getName() {
+        return username;
+    }
+}
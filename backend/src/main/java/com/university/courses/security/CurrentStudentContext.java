@@ -0,0 +1,103 @@
+package com.university.courses.security;
+
+import com.university.courses.entity.User;
+import com.university.courses.exception.ResourceNotFoundException;
+import com.university.courses.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Identity of the caller for the current request, populated once by {@link JwtAuthenticationFilter}.
+ * Services read userId/studentId from here instead of re-querying the users table.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentStudentContext {
+    
+    private final UserRepository userRepository;
+    
+    private boolean resolved;
+    private Long userId;
+    private String username;
+    private String role;
+    private Long studentId;
+    
+    public void populate(AuthenticatedUser principal) {
+        populate(principal.getUserId(), principal.getUsername(), principal.getRole(), principal.getStudentId());
+    }
+    
+    public void populate(User user) {
+        populate(
+                user.getId(),
+                user.getUsername(),
+                user.getRole().name(),
+                user.getStudent() != null ? user.getStudent().getId() : null
+        );
+    }
+    
+    private void populate(Long userId, String username, String role, Long studentId) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.studentId = studentId;
+        this.resolved = true;
+    }
+    
+    public Long getUserId() {
+        resolve();
+        return userId;
+    }
+    
+    public String getUsername() {
+        resolve();
+        return username;
+    }
+    
+    public String getRole() {
+        resolve();
+        return role;
+    }
+    
+    public Long getStudentId() {
+        resolve();
+        return studentId;
+    }
+    
+    public Long requireStudentId() {
+        Long id = getStudentId();
+        if (id == null) {
+            throw new IllegalStateException("Current user is not a student");
+        }
+        return id;
+    }
+    
+    /**
+     * Falls back to the security context (and, as a last resort, one user lookup) when the request
+     * was authenticated by something other than the JWT filter.
+     */
+    private void resolve() {
+        if (resolved) {
+            return;
+        }
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new IllegalStateException("No authenticated user for the current request");
+        }
+        
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            populate(authenticatedUser);
+        } else if (principal instanceof User user) {
+            populate(user);
+        } else {
+            User user = userRepository.findByUsername(authentication.getName())
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            populate(user);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.university.courses.security;
 
+import com.university.courses.entity.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,6 +19,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +30,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final CurrentStudentContext currentStudentContext;
+    private final TokenRevocationService tokenRevocationService;
+    
+    /**
+     * How often a claims-authenticated user is re-checked against the users table, in milliseconds.
+     * Zero disables revalidation so the filter never touches the database for current tokens.
+     */
+    @Value("${jwt.revalidation-interval:0}")
+    private long revalidationInterval;
+    
+    @Value("${jwt.revalidation.max-entries:10000}")
+    private int revalidationMaxEntries;
+    
+    /** When each user last passed revalidation; an entry older than the interval no longer counts. */
+    private final Map<String, Long> lastRevalidated = new ConcurrentHashMap<>();
     
     @Override
     protected void doFilterInternal(
@@ -34,6 +55,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final Claims claims;
         final String username;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -44,21 +66,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            username = jwtService.extractUsername(jwt);
+            claims = jwtService.verify(jwt);
+            username = claims.getSubject();
             
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            if (jwtService.isRefreshToken(claims) || tokenRevocationService.isRevoked(claims)) {
+                log.debug("Rejected refresh or revoked token for user: {}", username);
+            } else if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UsernamePasswordAuthenticationToken authToken = authenticateFromClaims(claims);
+                if (authToken == null) {
+                    authToken = authenticateFromDatabase(claims);
+                }
                 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+                if (authToken != null) {
                     authToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request)
                     );
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    populateCurrentStudentContext(authToken.getPrincipal());
                 }
             }
         } catch (Exception e) {
@@ -67,4 +91,74 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+    
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(Claims claims) {
+        AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims);
+        if (principal == null || !revalidate(principal)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+    
+    /**
+     * Fallback for tokens issued before role and id claims were embedded.
+     */
+    private UsernamePasswordAuthenticationToken authenticateFromDatabase(Claims claims) {
+        if (claims.get(JwtService.ROLE_CLAIM) != null) {
+            return null;
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+    
+    private void populateCurrentStudentContext(Object principal) {
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            currentStudentContext.populate(authenticatedUser);
+        } else if (principal instanceof User user) {
+            currentStudentContext.populate(user);
+        }
+    }
+    
+    private boolean revalidate(AuthenticatedUser principal) {
+        if (revalidationInterval <= 0) {
+            return true;
+        }
+        
+        long now = System.currentTimeMillis();
+        Long last = lastRevalidated.get(principal.getUsername());
+        if (last != null && now - last < revalidationInterval) {
+            return true;
+        }
+        
+        UserDetails userDetails = userDetailsService.loadUserByUsername(principal.getUsername());
+        boolean valid = userDetails.isEnabled() && userDetails.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + principal.getRole()));
+        if (valid) {
+            if (lastRevalidated.size() >= revalidationMaxEntries) {
+                evictRevalidations(now);
+            }
+            lastRevalidated.put(principal.getUsername(), now);
+        } else {
+            lastRevalidated.remove(principal.getUsername());
+        }
+        return valid;
+    }
+    
+    /**
+     * Removes entries older than the revalidation interval first; if the map is still full, drops
+     * roughly a tenth of it so that eviction cost is amortised over many revalidations.
+     */
+    private void evictRevalidations(long now) {
+        lastRevalidated.values().removeIf(last -> now - last >= revalidationInterval);
+        
+        int toDrop = lastRevalidated.size() - revalidationMaxEntries + Math.max(1, revalidationMaxEntries / 10);
+        Iterator<String> iterator = lastRevalidated.keySet().iterator();
+        while (toDrop-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.university.courses.security;
+
+import com.university.courses.entity.RevokedToken;
+import com.university.courses.entity.RevokedToken.RevocationType;
+import com.university.courses.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the revoked-token table mirrored in memory so the per-request check never touches the database.
+ * Each lookup goes through a Bloom filter first; only its rare positives consult the exact maps.
+ * Other instances' revocations are picked up by an incremental poll, and the structures are rebuilt
+ * from scratch periodically to shed expired entries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+    
+    /** Re-read rows revoked slightly before the last sync in case their transaction committed late. */
+    private static final long SYNC_OVERLAP_SECONDS = 30;
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final PlatformTransactionManager transactionManager;
+    
+    @Value("${jwt.expiration:900000}")
+    private long accessExpiration;
+    
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+    
+    @Value("${jwt.revocation.expected-entries:10000}")
+    private int expectedEntries;
+    
+    private volatile Snapshot snapshot;
+    private volatile LocalDateTime lastSync;
+    
+    public boolean isRevoked(Claims claims) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return false;
+        }
+        
+        String jti = claims.getId();
+        if (jti != null && current.tokenFilter.mightContain(jti) && current.revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        
+        String subject = claims.getSubject();
+        if (subject != null && current.userFilter.mightContain(subject)) {
+            Long cutoff = current.userCutoffs.get(subject);
+            Date issuedAt = claims.getIssuedAt();
+            // iat has second precision, so a token issued in the same second as the cutoff counts as revoked
+            return cutoff != null && (issuedAt == null || issuedAt.getTime() <= cutoff);
+        }
+        return false;
+    }
+    
+    /**
+     * Records the token as revoked and returns whether this call did so. The unique (type, subject) key
+     * decides, so of several callers on any instances exactly one gets {@code true}: a refresh token can
+     * be exchanged once even before other instances have synced. The row commits in a transaction of
+     * its own, and only then is it applied in memory.
+     */
+    public boolean revokeToken(String jti, Date expiresAt) {
+        if (jti == null) {
+            return false;
+        }
+        log.debug("Revoking token: {}", jti);
+        
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setType(RevocationType.TOKEN);
+        revokedToken.setSubject(jti);
+        revokedToken.setRevokedAt(LocalDateTime.now());
+        revokedToken.setExpiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        try {
+            apply(inNewTransaction().execute(status -> revokedTokenRepository.saveAndFlush(revokedToken)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Token already revoked: {}", jti);
+            return false;
+        }
+    }
+    
+    /**
+     * Revokes every token issued to the user so far, as on {@code POST /api/auth/logout/all}.
+     */
+    public void revokeAllForUser(String username) {
+        log.debug("Revoking all tokens for user: {}", username);
+        
+        RevokedToken revoked;
+        try {
+            revoked = inNewTransaction().execute(status -> saveUserCutoff(username));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent call created the row first; move its cutoff instead
+            revoked = inNewTransaction().execute(status -> saveUserCutoff(username));
+        }
+        apply(revoked);
+    }
+    
+    private RevokedToken saveUserCutoff(String username) {
+        LocalDateTime now = LocalDateTime.now();
+        RevokedToken revokedToken = revokedTokenRepository.findByTypeAndSubject(RevocationType.USER, username)
+                .orElseGet(RevokedToken::new);
+        revokedToken.setType(RevocationType.USER);
+        revokedToken.setSubject(username);
+        revokedToken.setRevokedAt(now);
+        revokedToken.setExpiresAt(now.plus(Duration.ofMillis(Math.max(accessExpiration, refreshExpiration))));
+        return revokedTokenRepository.saveAndFlush(revokedToken);
+    }
+    
+    private TransactionTemplate inNewTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+    
+    /**
+     * Purges expired rows and rebuilds the filters sized for what is left.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${jwt.revocation.rebuild-interval:3600000}",
+            fixedDelayString = "${jwt.revocation.rebuild-interval:3600000}"
+    )
+    @Transactional
+    public void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        int purged = revokedTokenRepository.deleteExpired(startedAt);
+        List<RevokedToken> active = revokedTokenRepository.findAll();
+        
+        Snapshot rebuilt = new Snapshot(Math.max(expectedEntries, active.size() * 2));
+        active.forEach(rebuilt::add);
+        snapshot = rebuilt;
+        lastSync = startedAt;
+        log.info("Rebuilt token revocation filter - active entries: {}, purged: {}", active.size(), purged);
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:5000}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        LocalDateTime since = lastSync;
+        if (since == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        revokedTokenRepository.findByRevokedAtAfter(since.minusSeconds(SYNC_OVERLAP_SECONDS))
+                .forEach(this::apply);
+        lastSync = startedAt;
+    }
+    
+    private void apply(RevokedToken revokedToken) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.add(revokedToken);
+        }
+    }
+    
+    private static final class Snapshot {
+        private final BloomFilter tokenFilter;
+        private final BloomFilter userFilter;
+        private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+        private final Map<String, Long> userCutoffs = new ConcurrentHashMap<>();
+        
+        private Snapshot(int expectedEntries) {
+            this.tokenFilter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+            this.userFilter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        }
+        
+        private void add(RevokedToken revokedToken) {
+            long revokedAt = revokedToken.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (revokedToken.getType() == RevocationType.TOKEN) {
+                revokedTokens.put(revokedToken.getSubject(), revokedAt);
+                tokenFilter.put(revokedToken.getSubject());
+            } else {
+                userCutoffs.merge(revokedToken.getSubject(), revokedAt, Math::max);
+                userFilter.put(revokedToken.getSubject());
+            }
+        }
+    }
+}
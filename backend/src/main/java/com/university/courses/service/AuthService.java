@@ -3,23 +3,31 @@ package com.university.courses.service;
 import com.university.courses.dto.AuthenticationRequest;
 import com.university.courses.dto.AuthenticationResponse;
 import com.university.courses.dto.RegisterRequest;
+import com.university.courses.dto.TokenIntrospectionResponse;
+import com.university.courses.dto.TokenIntrospectionResponse.TokenStatus;
 import com.university.courses.dto.UserDTO;
 import com.university.courses.entity.Student;
 import com.university.courses.entity.User;
+import com.university.courses.exception.InvalidTokenException;
 import com.university.courses.exception.ResourceNotFoundException;
 import com.university.courses.repository.UserRepository;
+import com.university.courses.security.CurrentStudentContext;
 import com.university.courses.security.JwtService;
+import com.university.courses.security.PasswordHashingExecutor;
+import com.university.courses.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -30,6 +38,9 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final CurrentStudentContext currentStudentContext;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final TokenRevocationService tokenRevocationService;
     
     @Transactional
     public AuthenticationResponse register(RegisterRequest request) {
@@ -45,7 +56,7 @@ public class AuthService {
         
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(request.getPassword())));
         user.setEmail(request.getEmail());
         user.setRole(User.Role.valueOf(request.getRole().toUpperCase()));
         user.setEnabled(true);
@@ -67,54 +78,149 @@ public class AuthService {
         }
         
         User savedUser = userRepository.save(user);
-        String jwtToken = jwtService.generateToken(savedUser);
         
-        return buildAuthResponse(savedUser, jwtToken);
+        return buildAuthResponse(savedUser);
     }
     
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         log.debug("Authenticating user: {}", request.getUsername());
         
-        authenticationManager.authenticate(
+        passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsername(),
                         request.getPassword()
                 )
-        );
+        ));
         
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        String jwtToken = jwtService.generateToken(user);
+        return buildAuthResponse(user);
+    }
+    
+    /**
+     * Exchanges a refresh token for a new access/refresh pair. The presented refresh token is
+     * revoked, so each one can be used only once.
+     */
+    @Transactional
+    public AuthenticationResponse refresh(String refreshToken) {
+        Claims claims = verifyOrNull(refreshToken);
+        if (claims == null || !jwtService.isRefreshToken(claims) || tokenRevocationService.isRevoked(claims)) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+        log.debug("Refreshing tokens for user: {}", claims.getSubject());
+        
+        User user = userRepository.findByUsername(claims.getSubject())
+                .filter(User::isEnabled)
+                .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
         
-        return buildAuthResponse(user, jwtToken);
+        // Only the first exchange of this token, on any instance, gets to revoke it
+        if (!tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration())) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+        return buildAuthResponse(user);
+    }
+    
+    /**
+     * Revokes the given access and refresh tokens. Tokens that are already invalid are ignored.
+     */
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        for (String token : new String[] {accessToken, refreshToken}) {
+            Claims claims = verifyOrNull(token);
+            if (claims != null) {
+                log.debug("Logging out user: {}", claims.getSubject());
+                tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration());
+            }
+        }
+    }
+    
+    /**
+     * Revokes every token issued to the owner of the given access token, on every device.
+     */
+    public void logoutEverywhere(String accessToken) {
+        Claims claims = verifyOrNull(accessToken);
+        if (claims == null || jwtService.isRefreshToken(claims) || tokenRevocationService.isRevoked(claims)) {
+            throw new InvalidTokenException("Invalid or expired access token");
+        }
+        log.debug("Logging out user everywhere: {}", claims.getSubject());
+        tokenRevocationService.revokeAllForUser(claims.getSubject());
     }
     
     public UserDTO getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByIdWithStudent(currentStudentContext.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         return convertToDTO(user);
     }
     
     public boolean validateToken(String token) {
+        return introspect(token).isActive();
+    }
+    
+    /**
+     * Reports the validity and identity claims of each token. Everything is answered from the
+     * verified-token cache and the in-memory revocation list, so no token costs a database query.
+     */
+    public TokenIntrospectionResponse introspect(List<String> tokens) {
+        log.debug("Introspecting {} tokens", tokens.size());
+        
+        TokenIntrospectionResponse response = new TokenIntrospectionResponse();
+        for (String token : tokens) {
+            response.getResults().add(introspect(token));
+        }
+        return response;
+    }
+    
+    private TokenStatus introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenStatus.inactive(TokenStatus.INVALID);
+        }
+        
+        Claims claims;
+        try {
+            claims = jwtService.verify(token);
+        } catch (ExpiredJwtException e) {
+            return TokenStatus.inactive(TokenStatus.EXPIRED);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token introspection failed: {}", e.getMessage());
+            return TokenStatus.inactive(TokenStatus.INVALID);
+        }
+        
+        if (jwtService.isRefreshToken(claims)) {
+            return TokenStatus.inactive(TokenStatus.REFRESH_TOKEN);
+        }
+        if (tokenRevocationService.isRevoked(claims)) {
+            return TokenStatus.inactive(TokenStatus.REVOKED);
+        }
+        
+        TokenStatus status = new TokenStatus();
+        status.setActive(true);
+        status.setSubject(claims.getSubject());
+        status.setRole(claims.get(JwtService.ROLE_CLAIM, String.class));
+        status.setUserId(claims.get(JwtService.USER_ID_CLAIM, Long.class));
+        status.setStudentId(claims.get(JwtService.STUDENT_ID_CLAIM, Long.class));
+        status.setExpiresAt(claims.getExpiration().getTime() / 1000);
+        return status;
+    }
+    
+    private Claims verifyOrNull(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
         try {
-            String username = jwtService.extractUsername(token);
-            UserDetails userDetails = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            return jwtService.isTokenValid(token, userDetails);
-        } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            return false;
+            return jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Ignoring invalid token: {}", e.getMessage());
+            return null;
         }
     }
     
-    private AuthenticationResponse buildAuthResponse(User user, String token) {
+    private AuthenticationResponse buildAuthResponse(User user) {
         AuthenticationResponse response = new AuthenticationResponse();
-        response.setToken(token);
+        response.setToken(jwtService.generateToken(user));
+        response.setRefreshToken(jwtService.generateRefreshToken(user));
+        response.setExpiresIn(jwtService.getAccessTokenExpiration() / 1000);
         response.setUsername(user.getUsername());
         response.setEmail(user.getEmail());
         response.setRole(user.getRole().name());
@@ -0,0 +1,187 @@
+package com.university.courses.service;
+
+import com.university.courses.dto.BatchRegistrationReport;
+import com.university.courses.dto.BatchRegistrationReport.PairResult;
+import com.university.courses.dto.RegistrationDTO;
+import com.university.courses.entity.Registration.RegistrationStatus;
+import com.university.courses.event.CourseSeatsChangedEvent;
+import com.university.courses.repository.CourseRepository;
+import com.university.courses.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Enrolls many (student, course) pairs in one call. Students, courses and existing registrations are
+ * loaded with one set query each, seats are taken from the ledger once per course, and the rows are
+ * written with JDBC batch inserts (Hibernate cannot batch IDENTITY inserts).
+ */
+@Service
+@Slf4j
+public class BatchRegistrationService {
+    
+    private static final String INSERT_REGISTRATION_SQL =
+            "INSERT INTO registrations (student_id, course_id, registration_date, status, remarks) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final SeatLedger seatLedger;
+    private final EnrollmentCountService enrollmentCountService;
+    private final ResourceVersions resourceVersions;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    
+    public BatchRegistrationService(
+            StudentRepository studentRepository,
+            CourseRepository courseRepository,
+            SeatLedger seatLedger,
+            EnrollmentCountService enrollmentCountService,
+            ResourceVersions resourceVersions,
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${registration.batch.insert-batch-size:500}") int batchSize
+    ) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.seatLedger = seatLedger;
+        this.enrollmentCountService = enrollmentCountService;
+        this.resourceVersions = resourceVersions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+    
+    public BatchRegistrationReport enroll(List<RegistrationDTO> requested) {
+        log.debug("Batch enrolling {} registrations", requested.size());
+        
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (RegistrationDTO registration : requested) {
+            studentIds.add(registration.getStudentId());
+            courseIds.add(registration.getCourseId());
+        }
+        
+        try {
+            return transactionTemplate.execute(status -> {
+                Set<Long> existingStudents = new HashSet<>(studentRepository.findExistingIds(studentIds));
+                Set<Long> existingCourses = new HashSet<>(courseRepository.findExistingIds(courseIds));
+                Set<Pair> registered = findRegisteredPairs(existingStudents, existingCourses);
+                
+                List<PairResult> results = new ArrayList<>(requested.size());
+                Map<Long, List<PendingRegistration>> pendingByCourse = new LinkedHashMap<>();
+                for (RegistrationDTO registration : requested) {
+                    PairResult result = new PairResult(registration.getStudentId(), registration.getCourseId(), null);
+                    results.add(result);
+                    
+                    if (!existingStudents.contains(registration.getStudentId())) {
+                        result.setStatus(PairResult.STUDENT_NOT_FOUND);
+                    } else if (!existingCourses.contains(registration.getCourseId())) {
+                        result.setStatus(PairResult.COURSE_NOT_FOUND);
+                    } else if (!registered.add(new Pair(registration.getStudentId(), registration.getCourseId()))) {
+                        result.setStatus(PairResult.DUPLICATE);
+                    } else {
+                        pendingByCourse.computeIfAbsent(registration.getCourseId(), id -> new ArrayList<>())
+                                .add(new PendingRegistration(registration, result));
+                    }
+                }
+                
+                List<PendingRegistration> inserts = new ArrayList<>();
+                pendingByCourse.forEach((courseId, pending) -> {
+                    int reserved = seatLedger.tryReserve(courseId, pending.size());
+                    for (int i = 0; i < pending.size(); i++) {
+                        pending.get(i).result().setStatus(i < reserved ? PairResult.ENROLLED : PairResult.WAITLISTED);
+                    }
+                    if (reserved < pending.size()) {
+                        eventPublisher.publishEvent(new CourseSeatsChangedEvent(courseId));
+                    }
+                    inserts.addAll(pending);
+                });
+                insert(inserts);
+                resourceVersions.studentsChanged(inserts.stream().map(p -> p.registration().getStudentId()).toList());
+                pendingByCourse.forEach((courseId, pending) -> enrollmentCountService.adjustWaitlist(courseId,
+                        (int) pending.stream().filter(p -> PairResult.WAITLISTED.equals(p.result().getStatus())).count()));
+                
+                return buildReport(results);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another request registered one of the pairs between the pre-load and the insert
+            throw new IllegalArgumentException("Some registrations were created concurrently, please retry the batch");
+        }
+    }
+    
+    private Set<Pair> findRegisteredPairs(Set<Long> studentIds, Set<Long> courseIds) {
+        Set<Pair> registered = new LinkedHashSet<>();
+        if (studentIds.isEmpty() || courseIds.isEmpty()) {
+            return registered;
+        }
+        namedParameterJdbcTemplate.query(
+                "SELECT student_id, course_id FROM registrations " +
+                "WHERE student_id IN (:studentIds) AND course_id IN (:courseIds)",
+                Map.of("studentIds", studentIds, "courseIds", courseIds),
+                (RowCallbackHandler) rs -> registered.add(new Pair(rs.getLong("student_id"), rs.getLong("course_id")))
+        );
+        return registered;
+    }
+    
+    private void insert(List<PendingRegistration> inserts) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_REGISTRATION_SQL, inserts, batchSize, (ps, pending) -> {
+            ps.setLong(1, pending.registration().getStudentId());
+            ps.setLong(2, pending.registration().getCourseId());
+            ps.setTimestamp(3, now);
+            ps.setString(4, PairResult.ENROLLED.equals(pending.result().getStatus())
+                    ? RegistrationStatus.ENROLLED.name()
+                    : RegistrationStatus.WAITLISTED.name());
+            ps.setString(5, pending.registration().getRemarks());
+        });
+    }
+    
+    private static BatchRegistrationReport buildReport(List<PairResult> results) {
+        BatchRegistrationReport report = new BatchRegistrationReport();
+        report.setResults(results);
+        report.setTotal(results.size());
+        for (PairResult result : results) {
+            switch (result.getStatus()) {
+                case PairResult.ENROLLED -> report.setEnrolled(report.getEnrolled() + 1);
+                case PairResult.WAITLISTED -> report.setWaitlisted(report.getWaitlisted() + 1);
+                default -> report.setRejected(report.getRejected() + 1);
+            }
+        }
+        log.info("Batch enrollment finished - total: {}, enrolled: {}, waitlisted: {}, rejected: {}",
+                report.getTotal(), report.getEnrolled(), report.getWaitlisted(), report.getRejected());
+        return report;
+    }
+    
+    private record Pair(long studentId, long courseId) {
+    }
+    
+    private record PendingRegistration(RegistrationDTO registration, PairResult result) {
+    }
+}
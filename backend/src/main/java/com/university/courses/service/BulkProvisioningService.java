@@ -0,0 +1,329 @@
+package com.university.courses.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.courses.bulk.ImportRecord;
+import com.university.courses.bulk.RecordFormat;
+import com.university.courses.bulk.RecordReader;
+import com.university.courses.dto.BulkProvisioningReport;
+import com.university.courses.dto.RegisterRequest;
+import com.university.courses.entity.Student;
+import com.university.courses.entity.User;
+import com.university.courses.event.StudentsChangedEvent;
+import com.university.courses.repository.StudentRepository;
+import com.university.courses.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Creates user accounts (and their student records) from a streamed CSV/NDJSON upload.
+ * Uniqueness is checked against sets loaded once per upload, passwords are hashed in parallel,
+ * and rows are written with JDBC batch inserts, one transaction per chunk.
+ */
+@Service
+@Slf4j
+public class BulkProvisioningService {
+    
+    private static final String INSERT_STUDENT_SQL =
+            "INSERT INTO students (student_id, first_name, last_name, email, phone_number, date_of_birth, " +
+            "department, enrollment_year, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, password, email, role, student_id, enabled, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final ForkJoinPool hashingPool;
+    
+    public BulkProvisioningService(
+            UserRepository userRepository,
+            StudentRepository studentRepository,
+            PasswordEncoder passwordEncoder,
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${bulk.provisioning.batch-size:500}") int batchSize,
+            @Value("${bulk.provisioning.hash-parallelism:0}") int hashParallelism
+    ) {
+        this.userRepository = userRepository;
+        this.studentRepository = studentRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        // Leave half the cores to interactive traffic unless configured otherwise
+        this.hashingPool = new ForkJoinPool(hashParallelism > 0
+                ? hashParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+    
+    public BulkProvisioningReport provision(InputStream input, RecordFormat format) throws IOException {
+        log.debug("Bulk provisioning users from {} upload", format);
+        
+        UniquenessIndex index = new UniquenessIndex(
+                new HashSet<>(userRepository.findAllUsernamesLowercase()),
+                new HashSet<>(userRepository.findAllEmailsLowercase()),
+                new HashSet<>(studentRepository.findAllStudentIdsLowercase()),
+                new HashSet<>(studentRepository.findAllEmailsLowercase())
+        );
+        
+        BulkProvisioningReport report = new BulkProvisioningReport();
+        List<PendingAccount> chunk = new ArrayList<>(batchSize);
+        
+        try (RecordReader reader = new RecordReader(input, format, objectMapper)) {
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                PendingAccount account = validate(record, index, report);
+                if (account != null) {
+                    chunk.add(account);
+                }
+                if (chunk.size() >= batchSize) {
+                    flush(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flush(chunk, report);
+        }
+        
+        report.getRows().sort(Comparator.comparingLong(BulkProvisioningReport.RowResult::getLine));
+        log.info("Bulk provisioning finished - rows: {}, created: {}, failed: {}",
+                report.getTotalRows(), report.getCreated(), report.getFailed());
+        return report;
+    }
+    
+    private PendingAccount validate(ImportRecord record, UniquenessIndex index, BulkProvisioningReport report) {
+        String username = record.get("username");
+        if (record.error() != null) {
+            report.addFailed(record.line(), username, record.error());
+            return null;
+        }
+        
+        try {
+            // The same constraints as a single POST /api/auth/register, checked per row so one bad
+            // row fails on its own instead of taking its whole batch insert down with it
+            RegisterRequest request = new RegisterRequest();
+            request.setUsername(username);
+            request.setPassword(record.get("password"));
+            request.setEmail(record.get("email"));
+            request.setRole(record.get("role"));
+            requireValid(validator.validate(request));
+            
+            PendingAccount account = new PendingAccount();
+            account.line = record.line();
+            account.username = request.getUsername();
+            account.password = request.getPassword();
+            account.email = request.getEmail();
+            account.role = parseRole(request.getRole());
+            maxLength(account.username, "Username", 50);
+            maxLength(account.email, "Email", 100);
+            
+            if (index.usernames().contains(account.username.toLowerCase())) {
+                throw new IllegalArgumentException("Username already exists");
+            }
+            if (index.userEmails().contains(account.email.toLowerCase())) {
+                throw new IllegalArgumentException("Email already exists");
+            }
+            
+            if (User.Role.STUDENT.equals(account.role)) {
+                Student student = new Student();
+                student.setStudentId(record.get("studentId"));
+                student.setFirstName(record.get("firstName"));
+                student.setLastName(record.get("lastName"));
+                student.setEmail(account.email);
+                student.setPhoneNumber(record.get("phoneNumber"));
+                student.setDateOfBirth(record.getDate("dateOfBirth"));
+                student.setDepartment(record.get("department"));
+                student.setEnrollmentYear(record.getInteger("enrollmentYear"));
+                requireValid(validator.validate(student));
+                // Column sizes, which bean validation does not cover
+                maxLength(student.getStudentId(), "Student ID", 20);
+                maxLength(student.getFirstName(), "First name", 50);
+                maxLength(student.getLastName(), "Last name", 50);
+                maxLength(student.getPhoneNumber(), "Phone number", 15);
+                maxLength(student.getDepartment(), "Department", 100);
+                
+                account.studentId = student.getStudentId();
+                account.firstName = student.getFirstName();
+                account.lastName = student.getLastName();
+                account.department = student.getDepartment();
+                account.phoneNumber = student.getPhoneNumber();
+                account.dateOfBirth = student.getDateOfBirth();
+                account.enrollmentYear = student.getEnrollmentYear();
+                
+                if (index.studentIds().contains(account.studentId.toLowerCase())) {
+                    throw new IllegalArgumentException("Student with student ID " + account.studentId + " already exists");
+                }
+                if (index.studentEmails().contains(account.email.toLowerCase())) {
+                    throw new IllegalArgumentException("Student with email " + account.email + " already exists");
+                }
+                index.studentIds().add(account.studentId.toLowerCase());
+                index.studentEmails().add(account.email.toLowerCase());
+            }
+            
+            index.usernames().add(account.username.toLowerCase());
+            index.userEmails().add(account.email.toLowerCase());
+            return account;
+        } catch (IllegalArgumentException e) {
+            report.addFailed(record.line(), username, e.getMessage());
+            return null;
+        }
+    }
+    
+    private void flush(List<PendingAccount> chunk, BulkProvisioningReport report) {
+        hashingPool.submit(() -> chunk.parallelStream()
+                .forEach(account -> account.passwordHash = passwordEncoder.encode(account.password)))
+                .join();
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk));
+            chunk.forEach(account -> report.addCreated(account.line, account.username));
+        } catch (DataAccessException e) {
+            log.warn("Bulk provisioning batch of {} rows failed: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+            chunk.forEach(account -> report.addFailed(account.line, account.username,
+                    "Batch insert failed: " + e.getMostSpecificCause().getMessage()));
+        }
+    }
+    
+    private void insert(List<PendingAccount> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        List<PendingAccount> students = chunk.stream()
+                .filter(account -> account.studentId != null)
+                .toList();
+        
+        if (!students.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_STUDENT_SQL, students, batchSize, (ps, account) -> {
+                ps.setString(1, account.studentId);
+                ps.setString(2, account.firstName);
+                ps.setString(3, account.lastName);
+                ps.setString(4, account.email);
+                ps.setString(5, account.phoneNumber);
+                ps.setDate(6, account.dateOfBirth != null ? Date.valueOf(account.dateOfBirth) : null);
+                ps.setString(7, account.department);
+                ps.setObject(8, account.enrollmentYear, Types.INTEGER);
+                ps.setTimestamp(9, now);
+                ps.setTimestamp(10, now);
+            });
+            
+            Map<String, Long> studentKeys = new HashMap<>();
+            namedParameterJdbcTemplate.query(
+                    "SELECT id, student_id FROM students WHERE student_id IN (:studentIds)",
+                    Map.of("studentIds", students.stream().map(account -> account.studentId).toList()),
+                    (RowCallbackHandler) rs -> studentKeys.put(rs.getString("student_id").toLowerCase(), rs.getLong("id"))
+            );
+            students.forEach(account -> account.studentKey = studentKeys.get(account.studentId.toLowerCase()));
+            // Delivered after the chunk commits, so searches never see rows that were rolled back
+            eventPublisher.publishEvent(new StudentsChangedEvent(List.copyOf(studentKeys.values())));
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, chunk, batchSize, (ps, account) -> {
+            ps.setString(1, account.username);
+            ps.setString(2, account.passwordHash);
+            ps.setString(3, account.email);
+            ps.setString(4, account.role.name());
+            ps.setObject(5, account.studentKey, Types.BIGINT);
+            ps.setBoolean(6, true);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+    }
+    
+    private static <T> void requireValid(Set<ConstraintViolation<T>> violations) {
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+    
+    private static void maxLength(String value, String field, int max) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(field + " must be at most " + max + " characters");
+        }
+    }
+    
+    private static User.Role parseRole(String role) {
+        try {
+            return User.Role.valueOf(role.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role: " + role);
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdown();
+    }
+    
+    private record UniquenessIndex(
+            Set<String> usernames,
+            Set<String> userEmails,
+            Set<String> studentIds,
+            Set<String> studentEmails
+    ) {
+    }
+    
+    private static class PendingAccount {
+        long line;
+        String username;
+        String password;
+        String passwordHash;
+        String email;
+        User.Role role;
+        String studentId;
+        String firstName;
+        String lastName;
+        String phoneNumber;
+        LocalDate dateOfBirth;
+        String department;
+        Integer enrollmentYear;
+        Long studentKey;
+    }
+}
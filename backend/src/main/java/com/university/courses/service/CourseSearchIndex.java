@@ -0,0 +1,203 @@
+package com.university.courses.service;
+
+import com.university.courses.dto.CourseDTO;
+import com.university.courses.event.CatalogStampChangedEvent;
+import com.university.courses.event.CourseCatalogChangedEvent;
+import com.university.courses.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over course code, title, description and department, so catalog searches
+ * never run a {@code LIKE '%...%'} scan. Every query word must match the start of some indexed word;
+ * results are ranked by where the words matched (code, then title, department, description), with
+ * whole-word matches ahead of prefix matches, and ties broken by title.
+ * <p>
+ * The index holds course definitions only and answers with ids; seat counts come from the caller.
+ * Searches read an immutable snapshot. Course edits patch it after commit; edits made through other
+ * instances trigger a rebuild on the catalog version refresh that notices them, and a periodic rebuild
+ * catches anything missed.
+ */
+@Component
+@Slf4j
+public class CourseSearchIndex {
+    
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern LETTER_DIGIT_BOUNDARY = Pattern.compile("(?<=\\p{L})(?=\\p{N})|(?<=\\p{N})(?=\\p{L})");
+    private static final float CODE_WEIGHT = 8;
+    private static final float TITLE_WEIGHT = 4;
+    private static final float DEPARTMENT_WEIGHT = 2;
+    private static final float DESCRIPTION_WEIGHT = 1;
+    /** A query word that is only the start of an indexed word scores this fraction of a whole-word match. */
+    private static final float PREFIX_FACTOR = 0.5f;
+    
+    private final CourseRepository courseRepository;
+    
+    private volatile Snapshot snapshot;
+    
+    public CourseSearchIndex(CourseRepository courseRepository) {
+        this.courseRepository = courseRepository;
+    }
+    
+    /**
+     * One page of matching course ids, best match first. A blank query matches every course, in title order.
+     */
+    public List<Long> search(String query, String department, Integer minCredits, Integer maxCredits, Pageable pageable) {
+        Snapshot current = snapshot();
+        List<String> words = tokenize(query);
+        
+        Map<Long, Float> scores;
+        if (words.isEmpty()) {
+            scores = new HashMap<>();
+            current.courses.keySet().forEach(id -> scores.put(id, 0f));
+        } else {
+            scores = current.match(words.get(0));
+            for (String word : words.subList(1, words.size())) {
+                Map<Long, Float> wordScores = current.match(word);
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((id, score) -> score + wordScores.get(id));
+            }
+        }
+        
+        return scores.entrySet().stream()
+                .filter(entry -> current.courses.get(entry.getKey()).matches(department, minCredits, maxCredits))
+                .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+                        .thenComparing(entry -> current.courses.get(entry.getKey()), IndexedCourse.BY_TITLE))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${catalog.search.rebuild-interval:300000}",
+            fixedDelayString = "${catalog.search.rebuild-interval:300000}"
+    )
+    public synchronized void rebuild() {
+        List<CourseDTO> courses = courseRepository.findCourseDTOs(Pageable.unpaged());
+        snapshot = new Snapshot(courses.stream().map(IndexedCourse::of).toList());
+        log.info("Rebuilt course search index - courses: {}, words: {}", courses.size(), snapshot.postings.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CourseCatalogChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        Map<Long, IndexedCourse> courses = new HashMap<>(current.courses);
+        courseRepository.findCourseDTOById(event.courseId()).ifPresentOrElse(
+                course -> courses.put(course.getId(), IndexedCourse.of(course)),
+                () -> courses.remove(event.courseId()));
+        snapshot = new Snapshot(courses.values());
+    }
+    
+    @EventListener
+    public void onCatalogStampChanged(CatalogStampChangedEvent event) {
+        if (event.definitionsChanged() && snapshot != null) {
+            rebuild();
+        }
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    rebuild();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Lower-cased words, with codes like "CS101" also split into "cs" and "101".
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+                words.addAll(List.of(LETTER_DIGIT_BOUNDARY.split(word)));
+            }
+        }
+        return new ArrayList<>(words);
+    }
+    
+    private record IndexedCourse(Long id, String title, String department, Integer credits,
+                                 Map<String, Float> words) {
+        
+        private static final Comparator<IndexedCourse> BY_TITLE = Comparator
+                .comparing(IndexedCourse::title, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(IndexedCourse::id);
+        
+        private static IndexedCourse of(CourseDTO course) {
+            Map<String, Float> words = new HashMap<>();
+            index(words, course.getDescription(), DESCRIPTION_WEIGHT);
+            index(words, course.getDepartment(), DEPARTMENT_WEIGHT);
+            index(words, course.getTitle(), TITLE_WEIGHT);
+            index(words, course.getCode(), CODE_WEIGHT);
+            return new IndexedCourse(course.getId(), course.getTitle(), course.getDepartment(), course.getCredits(), words);
+        }
+        
+        private static void index(Map<String, Float> words, String text, float weight) {
+            tokenize(text).forEach(word -> words.merge(word, weight, Math::max));
+        }
+        
+        private boolean matches(String department, Integer minCredits, Integer maxCredits) {
+            return (department == null || department.equalsIgnoreCase(this.department))
+                    && (minCredits == null || (credits != null && credits >= minCredits))
+                    && (maxCredits == null || (credits != null && credits <= maxCredits));
+        }
+    }
+    
+    private static final class Snapshot {
+        private final Map<Long, IndexedCourse> courses = new HashMap<>();
+        /** Word to the courses containing it, with the weight of the best field it appears in. */
+        private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+        
+        private Snapshot(Collection<IndexedCourse> indexedCourses) {
+            for (IndexedCourse course : indexedCourses) {
+                courses.put(course.id(), course);
+                course.words().forEach((word, weight) ->
+                        postings.computeIfAbsent(word, w -> new HashMap<>()).put(course.id(), weight));
+            }
+        }
+        
+        /**
+         * Courses with a word starting with {@code prefix}, scored by their best such word.
+         */
+        private Map<Long, Float> match(String prefix) {
+            Map<Long, Float> scores = new HashMap<>();
+            postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).forEach((word, postingList) -> {
+                float factor = word.equals(prefix) ? 1 : PREFIX_FACTOR;
+                postingList.forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+            });
+            return scores;
+        }
+    }
+}
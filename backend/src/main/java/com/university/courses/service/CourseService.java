@@ -1,24 +1,82 @@
 package com.university.courses.service;
 
+import com.university.courses.cache.StaleWhileRevalidateCache;
+import com.university.courses.dto.CourseDTO;
 import com.university.courses.entity.Course;
+import com.university.courses.event.CatalogStampChangedEvent;
+import com.university.courses.event.CourseCatalogChangedEvent;
+import com.university.courses.event.CourseCountsChangedEvent;
+import com.university.courses.event.CourseSeatsChangedEvent;
 import com.university.courses.exception.ResourceNotFoundException;
 import com.university.courses.repository.CourseRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class CourseService {
     
     private final CourseRepository courseRepository;
+    private final ResourceVersions resourceVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CourseSearchIndex courseSearchIndex;
+    
+    /*
+     * Catalog read caches. Course edits clear all of them; seat count changes clear the entries that
+     * show counts. Codes are cached as ids so a count change only has to touch the by-id cache.
+     * Cached reads run outside a transaction so a hit never borrows a connection; misses and refreshes
+     * use the repository's own read-only transaction. The cached DTOs are shared and must not be modified.
+     */
+    private final StaleWhileRevalidateCache<Long, CourseDTO> coursesById;
+    private final StaleWhileRevalidateCache<String, Long> courseIdsByCode;
+    private final StaleWhileRevalidateCache<PageKey, Window<CourseDTO>> coursePages;
+    private final StaleWhileRevalidateCache<String, List<String>> departments;
+    
+    public CourseService(
+            CourseRepository courseRepository,
+            ResourceVersions resourceVersions,
+            ApplicationEventPublisher eventPublisher,
+            CourseSearchIndex courseSearchIndex,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.cache.max-entries:10000}") int maxEntries,
+            @Value("${catalog.cache.ttl:30000}") long ttlMillis
+    ) {
+        this.courseRepository = courseRepository;
+        this.resourceVersions = resourceVersions;
+        this.eventPublisher = eventPublisher;
+        this.courseSearchIndex = courseSearchIndex;
+        this.coursesById = new StaleWhileRevalidateCache<>("catalog.courses-by-id", maxEntries, ttlMillis,
+                id -> courseRepository.findCourseDTOById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id)),
+                meterRegistry);
+        this.courseIdsByCode = new StaleWhileRevalidateCache<>("catalog.course-ids-by-code", maxEntries, ttlMillis,
+                code -> courseRepository.findIdByCode(code)
+                        .orElseThrow(() -> new ResourceNotFoundException("Course not found with code: " + code)),
+                meterRegistry);
+        this.coursePages = new StaleWhileRevalidateCache<>("catalog.course-pages", maxEntries, ttlMillis,
+                key -> courseRepository.findAllBy(key.position(), key.sort(), Limit.of(key.size())).map(CourseService::toDTO),
+                meterRegistry);
+        this.departments = new StaleWhileRevalidateCache<>("catalog.departments", 1, ttlMillis,
+                key -> List.copyOf(courseRepository.findAllDepartments()),
+                meterRegistry);
+    }
     
     public List<Course> getAllCourses() {
         log.debug("Fetching all courses");
@@ -30,6 +88,24 @@ public class CourseService {
         return courseRepository.findAll(pageable);
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Window<CourseDTO> getCourseDTOs(ScrollPosition position, Sort sort, int size) {
+        log.debug("Fetching course DTOs after position: {}, sort: {}, size: {}", position, sort, size);
+        return coursePages.get(new PageKey(position, sort, size));
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CourseDTO getCourseDTOById(Long id) {
+        log.debug("Fetching course DTO by id: {}", id);
+        return coursesById.get(id);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CourseDTO getCourseDTOByCode(String code) {
+        log.debug("Fetching course DTO by code: {}", code);
+        return coursesById.get(courseIdsByCode.get(code));
+    }
+    
     public Course getCourseById(Long id) {
         log.debug("Fetching course by id: {}", id);
         return courseRepository.findById(id)
@@ -50,7 +126,9 @@ public class CourseService {
             throw new IllegalArgumentException("Course with code " + course.getCode() + " already exists");
         }
         
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        resourceVersions.courseChanged(saved.getId());
+        return saved;
     }
     
     @Transactional
@@ -71,6 +149,9 @@ public class CourseService {
         existingCourse.setCredits(updatedCourse.getCredits());
         existingCourse.setDepartment(updatedCourse.getDepartment());
         existingCourse.setMaxEnrollment(updatedCourse.getMaxEnrollment());
+        // A raised capacity may free seats for the waitlist
+        eventPublisher.publishEvent(new CourseSeatsChangedEvent(id));
+        resourceVersions.courseChanged(id);
         
         return courseRepository.save(existingCourse);
     }
@@ -84,6 +165,7 @@ public class CourseService {
         }
         
         courseRepository.deleteById(id);
+        resourceVersions.courseChanged(id);
     }
     
     public List<Course> getCoursesByDepartment(String department) {
@@ -91,18 +173,69 @@ public class CourseService {
         return courseRepository.findByDepartment(department);
     }
     
-    public Page<Course> searchCourses(String title, String department, Integer minCredits, Integer maxCredits, Pageable pageable) {
-        log.debug("Searching courses with filters - title: {}, department: {}, minCredits: {}, maxCredits: {}", 
-                 title, department, minCredits, maxCredits);
-        return courseRepository.findCoursesWithFilters(title, department, minCredits, maxCredits, pageable);
+    /**
+     * Ranked search over code, title, description and department, answered from the in-memory index;
+     * the matching courses (with their current seat counts) come from the by-id cache.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CourseDTO> searchCourseDTOs(String query, String department, Integer minCredits, Integer maxCredits, Pageable pageable) {
+        log.debug("Searching course DTOs - query: {}, department: {}, minCredits: {}, maxCredits: {}",
+                 query, department, minCredits, maxCredits);
+        List<CourseDTO> courses = new ArrayList<>();
+        for (Long id : courseSearchIndex.search(query, department, minCredits, maxCredits, pageable)) {
+            try {
+                courses.add(coursesById.get(id));
+            } catch (ResourceNotFoundException e) {
+                // Deleted after the index answered
+            }
+        }
+        return courses;
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<String> getAllDepartments() {
         log.debug("Fetching all departments");
-        return courseRepository.findAllDepartments();
+        return departments.get("all");
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        coursesById.invalidateAll();
+        courseIdsByCode.invalidateAll();
+        coursePages.invalidateAll();
+        departments.invalidateAll();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountsChanged(CourseCountsChangedEvent event) {
+        coursesById.invalidate(event.courseId());
+        coursePages.invalidateAll();
+    }
+    
+    /**
+     * Another instance changed the catalog. Runs on the catalog version refresh, before the new ETag is
+     * served, so no body is older than its tag.
+     */
+    @EventListener
+    public void onCatalogStampChanged(CatalogStampChangedEvent event) {
+        coursesById.invalidateAll();
+        coursePages.invalidateAll();
+        if (event.definitionsChanged()) {
+            courseIdsByCode.invalidateAll();
+            departments.invalidateAll();
+        }
     }
     
     public boolean existsByCode(String code) {
         return courseRepository.existsByCode(code);
     }
+    
+    private static CourseDTO toDTO(Course course) {
+        return new CourseDTO(course.getId(), course.getCode(), course.getTitle(), course.getDescription(),
+                course.getCredits(), course.getDepartment(), course.getMaxEnrollment(), course.getEnrolledCount(),
+                course.getWaitlistCount(), course.getCreatedAt(), course.getUpdatedAt());
+    }
+    
+    private record PageKey(ScrollPosition position, Sort sort, int size) {
+    }
 }
@@ -0,0 +1,307 @@
+package com.university.courses.service;
+
+import com.university.courses.dto.EnrollmentTicketDTO;
+import com.university.courses.dto.RegistrationDTO;
+import com.university.courses.dto.RushModeStatusDTO;
+import com.university.courses.exception.ResourceNotFoundException;
+import com.university.courses.exception.TooManyRequestsException;
+import com.university.courses.repository.CourseRepository;
+import com.university.courses.security.CurrentStudentContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registration-opening ("rush") mode. While enabled, enroll requests are not executed on the request
+ * thread; they join a bounded FIFO queue per course and get a ticket back. Each non-empty queue is
+ * drained by its own virtual thread, and a shared semaphore caps how many enrollments hit the database
+ * at once, so a stampede turns into a steady stream instead of thousands of contending transactions.
+ * Queues exist only for courses that exist, and a queue is dropped once it has been drained.
+ */
+@Service
+@Slf4j
+public class EnrollmentAdmissionService {
+    
+    /** Initial guess for the per-enrollment service time until real samples arrive. */
+    private static final double INITIAL_SERVICE_MILLIS = 20;
+    private static final double EWMA_WEIGHT = 0.1;
+    
+    private final StudentPortalService studentPortalService;
+    private final CourseRepository courseRepository;
+    private final CurrentStudentContext currentStudentContext;
+    private final AtomicBoolean enabled;
+    private final int queueCapacity;
+    private final long ticketTtlMillis;
+    private final Semaphore databasePermits;
+    private final Map<Long, CourseQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> pendingByStudentCourse = new ConcurrentHashMap<>();
+    private volatile double serviceMillis = INITIAL_SERVICE_MILLIS;
+    
+    public EnrollmentAdmissionService(
+            StudentPortalService studentPortalService,
+            CourseRepository courseRepository,
+            CurrentStudentContext currentStudentContext,
+            @Value("${registration.rush.enabled:false}") boolean enabled,
+            @Value("${registration.rush.queue-capacity:5000}") int queueCapacity,
+            @Value("${registration.rush.max-concurrent:8}") int maxConcurrent,
+            @Value("${registration.rush.ticket-ttl:600000}") long ticketTtlMillis
+    ) {
+        this.studentPortalService = studentPortalService;
+        this.courseRepository = courseRepository;
+        this.currentStudentContext = currentStudentContext;
+        this.enabled = new AtomicBoolean(enabled);
+        this.queueCapacity = queueCapacity;
+        this.ticketTtlMillis = ticketTtlMillis;
+        this.databasePermits = new Semaphore(maxConcurrent, true);
+    }
+    
+    public boolean isEnabled() {
+        return enabled.get();
+    }
+    
+    public RushModeStatusDTO setEnabled(boolean value) {
+        if (enabled.getAndSet(value) != value) {
+            log.info("Registration rush mode {}", value ? "enabled" : "disabled");
+        }
+        return getStatus();
+    }
+    
+    public RushModeStatusDTO getStatus() {
+        Map<Long, Integer> depths = new TreeMap<>();
+        queues.forEach((courseId, queue) -> {
+            if (!queue.waiting.isEmpty()) {
+                depths.put(courseId, queue.waiting.size());
+            }
+        });
+        return new RushModeStatusDTO(enabled.get(), depths, pendingByStudentCourse.size());
+    }
+    
+    /**
+     * Queues an enrollment for the current student. The returned future completes with the ticket once
+     * it finishes or {@code holdMillis} have passed, whichever comes first, without holding a thread
+     * meanwhile; a ticket that finished with an error completes it exceptionally with that error.
+     * A student who is already queued for the course gets their existing ticket back.
+     */
+    public CompletableFuture<EnrollmentTicketDTO> submit(Long courseId, long holdMillis) {
+        Long studentId = currentStudentContext.requireStudentId();
+        
+        Ticket ticket;
+        String key = studentId + ":" + courseId;
+        while (true) {
+            CourseQueue queue = queue(courseId);
+            synchronized (queue) {
+                if (queue.retired) {
+                    // Dropped by its drainer after the lookup; use the course's next queue
+                    continue;
+                }
+                ticket = pendingByStudentCourse.get(key);
+                if (ticket == null) {
+                    ticket = new Ticket(studentId, courseId, queue.enqueued.get() + 1);
+                    if (!queue.waiting.offer(ticket)) {
+                        throw new TooManyRequestsException("Enrollment queue for this course is full, please retry shortly",
+                                Math.max(1, estimatedWaitSeconds(queueCapacity)));
+                    }
+                    queue.enqueued.incrementAndGet();
+                    tickets.put(ticket.id, ticket);
+                    pendingByStudentCourse.put(key, ticket);
+                    log.debug("Queued enrollment ticket {} for student: {} and course: {}", ticket.id, studentId, courseId);
+                }
+            }
+            startDrainer(queue);
+            break;
+        }
+        
+        Ticket submitted = ticket;
+        CompletableFuture<Ticket> held = holdMillis > 0
+                ? submitted.done.thenApply(done -> submitted).completeOnTimeout(submitted, holdMillis, TimeUnit.MILLISECONDS)
+                : CompletableFuture.completedFuture(submitted);
+        return held.thenApply(current -> {
+            if (current.failure != null) {
+                throw current.failure;
+            }
+            return toDTO(current);
+        });
+    }
+    
+    public EnrollmentTicketDTO getTicket(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.studentId.equals(currentStudentContext.requireStudentId())) {
+            throw new ResourceNotFoundException("Enrollment ticket not found: " + ticketId);
+        }
+        return toDTO(ticket);
+    }
+    
+    /**
+     * The course's queue, created on first use. Only a missing queue costs a query, and only courses
+     * that exist get one, so made-up ids cannot grow the map.
+     */
+    private CourseQueue queue(Long courseId) {
+        CourseQueue queue = queues.get(courseId);
+        if (queue != null) {
+            return queue;
+        }
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+        return queues.computeIfAbsent(courseId, CourseQueue::new);
+    }
+    
+    private void startDrainer(CourseQueue queue) {
+        if (queue.draining.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("enrollment-drainer-" + queue.courseId).start(() -> drain(queue));
+        }
+    }
+    
+    private void drain(CourseQueue queue) {
+        while (true) {
+            Ticket ticket = queue.waiting.poll();
+            if (ticket == null) {
+                // Submits offer under the same lock, so an empty queue here stays empty once retired
+                synchronized (queue) {
+                    if (queue.waiting.isEmpty()) {
+                        queue.retired = true;
+                        queues.remove(queue.courseId, queue);
+                        return;
+                    }
+                }
+                continue;
+            }
+            queue.dequeued.set(ticket.sequence);
+            
+            try {
+                databasePermits.acquire();
+            } catch (InterruptedException e) {
+                fail(ticket, "Enrollment was interrupted");
+                abandon(queue);
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                process(ticket);
+            } finally {
+                databasePermits.release();
+            }
+        }
+    }
+    
+    /**
+     * Retires a queue whose drainer has to stop and fails every ticket still in it, so no caller waits
+     * for a drainer that will never come; the course's next submit starts a new queue.
+     */
+    private void abandon(CourseQueue queue) {
+        synchronized (queue) {
+            queue.retired = true;
+            queues.remove(queue.courseId, queue);
+        }
+        // Nothing is offered to a retired queue, so this empties it for good
+        Ticket waiting;
+        while ((waiting = queue.waiting.poll()) != null) {
+            fail(waiting, "Enrollment was interrupted");
+        }
+    }
+    
+    private void process(Ticket ticket) {
+        ticket.status = EnrollmentTicketDTO.PROCESSING;
+        long startedAt = System.nanoTime();
+        try {
+            ticket.registration = studentPortalService.enrollStudent(ticket.studentId, ticket.courseId);
+            ticket.status = EnrollmentTicketDTO.COMPLETED;
+        } catch (RuntimeException e) {
+            log.debug("Enrollment ticket {} failed: {}", ticket.id, e.getMessage());
+            ticket.failure = e;
+            ticket.message = e.getMessage();
+            ticket.status = EnrollmentTicketDTO.FAILED;
+        }
+        double elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000.0;
+        serviceMillis = serviceMillis + EWMA_WEIGHT * (elapsedMillis - serviceMillis);
+        finish(ticket);
+    }
+    
+    private void fail(Ticket ticket, String message) {
+        ticket.failure = new IllegalStateException(message);
+        ticket.message = message;
+        ticket.status = EnrollmentTicketDTO.FAILED;
+        finish(ticket);
+    }
+    
+    private void finish(Ticket ticket) {
+        ticket.completedAt = System.currentTimeMillis();
+        pendingByStudentCourse.remove(ticket.studentId + ":" + ticket.courseId, ticket);
+        ticket.done.complete(null);
+    }
+    
+    private EnrollmentTicketDTO toDTO(Ticket ticket) {
+        EnrollmentTicketDTO dto = new EnrollmentTicketDTO();
+        dto.setTicketId(ticket.id);
+        dto.setCourseId(ticket.courseId);
+        dto.setStatus(ticket.status);
+        dto.setRegistration(ticket.registration);
+        dto.setMessage(ticket.message);
+        if (EnrollmentTicketDTO.QUEUED.equals(ticket.status)) {
+            CourseQueue queue = queues.get(ticket.courseId);
+            long position = queue != null ? Math.max(0, ticket.sequence - queue.dequeued.get() - 1) : 0;
+            dto.setPosition(position);
+            dto.setEstimatedWaitSeconds(estimatedWaitSeconds(position + 1));
+        }
+        return dto;
+    }
+    
+    /**
+     * Each course queue is drained one enrollment at a time, so the wait is roughly linear in the position.
+     */
+    private long estimatedWaitSeconds(long position) {
+        return (long) Math.ceil(position * serviceMillis / 1000);
+    }
+    
+    @Scheduled(fixedDelayString = "${registration.rush.cleanup-interval:60000}")
+    public void purgeCompletedTickets() {
+        long cutoff = System.currentTimeMillis() - ticketTtlMillis;
+        tickets.values().removeIf(ticket -> ticket.completedAt > 0 && ticket.completedAt < cutoff);
+    }
+    
+    private final class CourseQueue {
+        private final Long courseId;
+        private final ArrayBlockingQueue<Ticket> waiting = new ArrayBlockingQueue<>(queueCapacity, true);
+        private final AtomicLong enqueued = new AtomicLong();
+        private final AtomicLong dequeued = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** Set, under the queue's lock, once the drainer has dropped it; nothing may be offered after. */
+        private boolean retired;
+        
+        private CourseQueue(Long courseId) {
+            this.courseId = courseId;
+        }
+    }
+    
+    private static final class Ticket {
+        private final String id = UUID.randomUUID().toString();
+        private final Long studentId;
+        private final Long courseId;
+        private final long sequence;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile String status = EnrollmentTicketDTO.QUEUED;
+        private volatile RegistrationDTO registration;
+        private volatile String message;
+        private volatile RuntimeException failure;
+        private volatile long completedAt;
+        
+        private Ticket(Long studentId, Long courseId, long sequence) {
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.sequence = sequence;
+        }
+    }
+}
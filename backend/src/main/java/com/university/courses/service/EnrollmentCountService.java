@@ -0,0 +1,116 @@
+package com.university.courses.service;
+
+import com.university.courses.event.CourseCountsChangedEvent;
+import com.university.courses.repository.CourseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the denormalized {@code waitlist_count} column on courses and keeps both count columns
+ * honest. {@code enrolled_count} is written by {@link SeatLedger}, which takes and returns seats on it;
+ * callers adjust the waitlist count inside the transaction that changes a registration. A periodic
+ * reconciliation recounts both from the registrations table and repairs any course that has drifted.
+ * Every change publishes a {@link CourseCountsChangedEvent}.
+ */
+@Service
+@Slf4j
+public class EnrollmentCountService {
+    
+    private static final String COUNTS_SQL =
+            "SELECT c.id, c.enrolled_count, c.waitlist_count, " +
+            "COALESCE(SUM(CASE WHEN r.status = 'ENROLLED' THEN 1 ELSE 0 END), 0) AS enrolled, " +
+            "COALESCE(SUM(CASE WHEN r.status = 'WAITLISTED' THEN 1 ELSE 0 END), 0) AS waitlisted " +
+            "FROM courses c LEFT JOIN registrations r ON r.course_id = c.id " +
+            "GROUP BY c.id, c.enrolled_count, c.waitlist_count";
+    
+    private static final String COURSE_COUNTS_SQL =
+            "SELECT COALESCE(SUM(CASE WHEN status = 'ENROLLED' THEN 1 ELSE 0 END), 0) AS enrolled, " +
+            "COALESCE(SUM(CASE WHEN status = 'WAITLISTED' THEN 1 ELSE 0 END), 0) AS waitlisted " +
+            "FROM registrations WHERE course_id = ?";
+    
+    private final CourseRepository courseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter repairedCounter;
+    
+    public EnrollmentCountService(
+            CourseRepository courseRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        this.courseRepository = courseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.repairedCounter = Counter.builder("registration.counts.repaired")
+                .description("Courses whose denormalized enrollment counts had drifted and were repaired")
+                .register(meterRegistry);
+    }
+    
+    public void adjustWaitlist(Long courseId, int delta) {
+        if (delta != 0) {
+            courseRepository.adjustCounts(courseId, 0, delta);
+            eventPublisher.publishEvent(new CourseCountsChangedEvent(courseId));
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${registration.counts.reconcile-interval:300000}",
+            fixedDelayString = "${registration.counts.reconcile-interval:300000}"
+    )
+    public void reconcile() {
+        List<Long> drifted = new ArrayList<>();
+        jdbcTemplate.query(COUNTS_SQL, (RowCallbackHandler) rs -> {
+            if (rs.getInt("enrolled_count") != rs.getInt("enrolled") || rs.getInt("waitlist_count") != rs.getInt("waitlisted")) {
+                drifted.add(rs.getLong("id"));
+            }
+        });
+        
+        for (Long courseId : drifted) {
+            transactionTemplate.executeWithoutResult(status -> repair(courseId));
+        }
+        if (!drifted.isEmpty()) {
+            log.info("Enrollment count reconciliation checked {} drifted courses", drifted.size());
+        }
+    }
+    
+    /**
+     * Recounts one course under its row lock. Writers adjust the counts through the same row, so an
+     * in-flight registration either commits before the recount or applies its delta after it.
+     */
+    private void repair(Long courseId) {
+        List<Long> locked = jdbcTemplate.queryForList("SELECT id FROM courses WHERE id = ? FOR UPDATE", Long.class, courseId);
+        if (locked.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(COURSE_COUNTS_SQL, (RowCallbackHandler) rs -> {
+            int enrolled = rs.getInt("enrolled");
+            int waitlisted = rs.getInt("waitlisted");
+            int updated = jdbcTemplate.update(
+                    "UPDATE courses SET enrolled_count = ?, waitlist_count = ? " +
+                    "WHERE id = ? AND (enrolled_count <> ? OR waitlist_count <> ?)",
+                    enrolled, waitlisted, courseId, enrolled, waitlisted);
+            if (updated > 0) {
+                repairedCounter.increment();
+                eventPublisher.publishEvent(new CourseCountsChangedEvent(courseId));
+                log.warn("Repaired enrollment counts for course {} - enrolled: {}, waitlisted: {}", courseId, enrolled, waitlisted);
+            }
+        }, courseId);
+    }
+}
@@ -0,0 +1,150 @@
+package com.university.courses.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.courses.bulk.RecordFormat;
+import com.university.courses.bulk.RecordWriter;
+import com.university.courses.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Full-table exports of students, registrations and results, written row by row straight from a
+ * forward-only JDBC result set to the response. Rows are never mapped to entities, so there is no
+ * persistence context to grow, and with a streaming fetch size the driver holds one row at a time:
+ * heap use is the same for ten rows or ten million.
+ * <p>
+ * Each running export holds a pooled connection until its last row is written, so only a few may
+ * run at once, each for at most {@code export.timeout}; other async requests keep the default timeout.
+ */
+@Service
+@Slf4j
+public class ExportService {
+    
+    private static final String STUDENTS_SQL =
+            "SELECT id, student_id, first_name, last_name, email, phone_number, date_of_birth, department, " +
+            "enrollment_year, created_at, updated_at FROM students ORDER BY id";
+    private static final List<String> STUDENT_COLUMNS = List.of("id", "studentId", "firstName", "lastName", "email",
+            "phoneNumber", "dateOfBirth", "department", "enrollmentYear", "createdAt", "updatedAt");
+    
+    private static final String REGISTRATIONS_SQL =
+            "SELECT r.id, s.student_id, c.code, r.status, r.registration_date, r.remarks FROM registrations r " +
+            "JOIN students s ON s.id = r.student_id JOIN courses c ON c.id = r.course_id ORDER BY r.id";
+    private static final List<String> REGISTRATION_COLUMNS = List.of("id", "studentId", "courseCode", "status",
+            "registrationDate", "remarks");
+    
+    private static final String RESULTS_SQL =
+            "SELECT res.id, r.id, s.student_id, c.code, res.marks, res.grade, res.gpa_points, res.feedback, " +
+            "res.result_date FROM results res JOIN registrations r ON r.id = res.registration_id " +
+            "JOIN students s ON s.id = r.student_id JOIN courses c ON c.id = r.course_id ORDER BY res.id";
+    private static final List<String> RESULT_COLUMNS = List.of("id", "registrationId", "studentId", "courseCode",
+            "marks", "grade", "gpaPoints", "feedback", "resultDate");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Semaphore running;
+    private final long timeoutMillis;
+    
+    public ExportService(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${export.fetch-size:-2147483648}") int fetchSize,
+            @Value("${export.max-concurrent:2}") int maxConcurrent,
+            @Value("${export.timeout:1800000}") long timeoutMillis
+    ) {
+        // A template of its own, so the streaming fetch size never applies to other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.running = new Semaphore(maxConcurrent);
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    public WebAsyncTask<Void> exportStudents(RecordFormat format, Callable<OutputStream> output) {
+        return export("students", STUDENTS_SQL, STUDENT_COLUMNS, format, output);
+    }
+    
+    public WebAsyncTask<Void> exportRegistrations(RecordFormat format, Callable<OutputStream> output) {
+        return export("registrations", REGISTRATIONS_SQL, REGISTRATION_COLUMNS, format, output);
+    }
+    
+    public WebAsyncTask<Void> exportResults(RecordFormat format, Callable<OutputStream> output) {
+        return export("results", RESULTS_SQL, RESULT_COLUMNS, format, output);
+    }
+    
+    /**
+     * Claims an export slot now, so a busy server answers 429 before the response starts. The slot
+     * goes back when the async request ends, however it ends: written, failed, timed out or abandoned
+     * by the client. {@code output} is opened only once the export runs.
+     */
+    private WebAsyncTask<Void> export(String name, String sql, List<String> columns, RecordFormat format,
+                                      Callable<OutputStream> output) {
+        if (!running.tryAcquire()) {
+            throw new TooManyRequestsException("Too many exports running, please retry shortly", 30);
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                running.release();
+            }
+        };
+        
+        WebAsyncTask<Void> task = new WebAsyncTask<>(timeoutMillis, () -> {
+            log.debug("Exporting {} as {}", name, format);
+            long rows = write(output.call(), sql, columns, format);
+            log.info("Exported {} - rows: {}", name, rows);
+            return null;
+        });
+        task.onTimeout(() -> {
+            log.warn("Export of {} timed out after {} ms", name, timeoutMillis);
+            release.run();
+            return null;
+        });
+        task.onError(() -> {
+            release.run();
+            return null;
+        });
+        task.onCompletion(release);
+        return task;
+    }
+    
+    private long write(OutputStream outputStream, String sql, List<String> columns, RecordFormat format)
+            throws IOException {
+        RecordWriter writer = new RecordWriter(outputStream, format, columns, objectMapper);
+        // Send the header now rather than after the query's first buffer fills
+        writer.flush();
+        
+        long[] rows = new long[1];
+        try {
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                Object[] values = new Object[columns.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                try {
+                    writer.write(values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; closing the result set early is all there is to do
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+}
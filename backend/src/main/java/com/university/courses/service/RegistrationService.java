@@ -3,12 +3,19 @@ package com.university.courses.service;
 import com.university.courses.entity.Course;
 import com.university.courses.entity.Registration;
 import com.university.courses.entity.Student;
+import com.university.courses.event.CourseSeatsChangedEvent;
 import com.university.courses.exception.ResourceNotFoundException;
+import com.university.courses.repository.CourseRepository;
 import com.university.courses.repository.RegistrationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,16 +29,20 @@ public class RegistrationService {
     
     private final RegistrationRepository registrationRepository;
     private final StudentService studentService;
-    private final CourseService courseService;
+    private final CourseRepository courseRepository;
+    private final SeatLedger seatLedger;
+    private final EnrollmentCountService enrollmentCountService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersions resourceVersions;
     
     public List<Registration> getAllRegistrations() {
         log.debug("Fetching all registrations");
         return registrationRepository.findAll();
     }
     
-    public Page<Registration> getAllRegistrations(Pageable pageable) {
-        log.debug("Fetching registrations with pagination: {}", pageable);
-        return registrationRepository.findAll(pageable);
+    public Window<Registration> getRegistrations(ScrollPosition position, Sort sort, int size) {
+        log.debug("Fetching registrations after position: {}, sort: {}, size: {}", position, sort, size);
+        return registrationRepository.findAllBy(position, sort, Limit.of(size));
     }
     
     public Registration getRegistrationById(Long id) {
@@ -55,33 +66,58 @@ public class RegistrationService {
         return registrationRepository.findByStatus(status);
     }
     
+    /**
+     * Takes a seat with one conditional update of the course row; when the course is full the student
+     * joins its waitlist instead. Duplicates are caught by the (student_id, course_id) unique constraint.
+     */
     @Transactional
     public Registration createRegistration(Long studentId, Long courseId, String remarks) {
         log.debug("Creating registration for student: {} and course: {}", studentId, courseId);
         
-        // Check if registration already exists
-        if (registrationRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
-            throw new IllegalArgumentException("Student is already registered for this course");
+        Registration.RegistrationStatus status = Registration.RegistrationStatus.ENROLLED;
+        if (!seatLedger.tryReserve(courseId)) {
+            log.debug("Course {} is full, waitlisting student: {}", courseId, studentId);
+            status = Registration.RegistrationStatus.WAITLISTED;
+            // A seat may be freed before this commits; let the promoter take another look
+            eventPublisher.publishEvent(new CourseSeatsChangedEvent(courseId));
         }
         
-        // Get student and course
         Student student = studentService.getStudentById(studentId);
-        Course course = courseService.getCourseById(courseId);
-        
-        // Check if course has reached maximum enrollment
-        if (course.getMaxEnrollment() != null) {
-            long currentEnrollment = getEnrolledCountByCourse(courseId);
-            if (currentEnrollment >= course.getMaxEnrollment()) {
-                throw new IllegalArgumentException("Course has reached maximum enrollment capacity");
-            }
-        }
+        Course course = courseRepository.getReferenceById(courseId);
         
         Registration registration = new Registration();
         registration.setStudent(student);
         registration.setCourse(course);
         registration.setRemarks(remarks);
+        registration.setStatus(status);
         
-        return registrationRepository.save(registration);
+        Registration saved;
+        try {
+            saved = registrationRepository.saveAndFlush(registration);
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Student is already registered for this course");
+        }
+        if (Registration.RegistrationStatus.WAITLISTED.equals(status)) {
+            enrollmentCountService.adjustWaitlist(courseId, 1);
+        }
+        resourceVersions.studentChanged(studentId);
+        return saved;
+    }
+    
+    /**
+     * Only the (student_id, course_id) constraint can fail on a unique key here; foreign key, length
+     * and not-null violations are real errors and must not read as a duplicate registration.
+     */
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
     }
     
     @Transactional
@@ -89,8 +125,9 @@ public class RegistrationService {
         log.debug("Updating registration with id: {}", id);
         
         Registration existingRegistration = getRegistrationById(id);
-        existingRegistration.setStatus(status);
+        changeStatus(existingRegistration, status);
         existingRegistration.setRemarks(remarks);
+        resourceVersions.studentChanged(existingRegistration.getStudent().getId());
         
         return registrationRepository.save(existingRegistration);
     }
@@ -100,7 +137,8 @@ public class RegistrationService {
         log.debug("Updating registration status with id: {} to: {}", id, status);
         
         Registration existingRegistration = getRegistrationById(id);
-        existingRegistration.setStatus(status);
+        changeStatus(existingRegistration, status);
+        resourceVersions.studentChanged(existingRegistration.getStudent().getId());
         
         return registrationRepository.save(existingRegistration);
     }
@@ -109,16 +147,43 @@ public class RegistrationService {
     public void deleteRegistration(Long id) {
         log.debug("Deleting registration with id: {}", id);
         
-        if (!registrationRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Registration not found with id: " + id);
+        Registration registration = getRegistrationById(id);
+        Long courseId = registration.getCourse().getId();
+        if (Registration.RegistrationStatus.ENROLLED.equals(registration.getStatus())) {
+            seatLedger.release(courseId);
+        } else if (Registration.RegistrationStatus.WAITLISTED.equals(registration.getStatus())) {
+            enrollmentCountService.adjustWaitlist(courseId, -1);
         }
+        resourceVersions.studentChanged(registration.getStudent().getId());
+        
+        registrationRepository.delete(registration);
+    }
+    
+    /**
+     * Keeps the course's seat and waitlist counts in step with a status change.
+     */
+    private void changeStatus(Registration registration, Registration.RegistrationStatus status) {
+        boolean wasEnrolled = Registration.RegistrationStatus.ENROLLED.equals(registration.getStatus());
+        boolean isEnrolled = Registration.RegistrationStatus.ENROLLED.equals(status);
+        Long courseId = registration.getCourse().getId();
         
-        registrationRepository.deleteById(id);
+        if (!wasEnrolled && isEnrolled && !seatLedger.tryReserve(courseId)) {
+            throw new IllegalArgumentException("Course has reached maximum enrollment capacity");
+        }
+        if (wasEnrolled && !isEnrolled) {
+            seatLedger.release(courseId);
+        }
+        boolean wasWaitlisted = Registration.RegistrationStatus.WAITLISTED.equals(registration.getStatus());
+        boolean isWaitlisted = Registration.RegistrationStatus.WAITLISTED.equals(status);
+        enrollmentCountService.adjustWaitlist(courseId, (isWaitlisted ? 1 : 0) - (wasWaitlisted ? 1 : 0));
+        registration.setStatus(status);
     }
     
     public long getEnrolledCountByCourse(Long courseId) {
         log.debug("Getting enrolled count for course: {}", courseId);
-        return registrationRepository.countByCourseIdAndStatus(courseId, Registration.RegistrationStatus.ENROLLED);
+        return courseRepository.findById(courseId)
+                .map(Course::getEnrolledCount)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
     }
     
     public boolean isStudentRegisteredForCourse(Long studentId, Long courseId) {
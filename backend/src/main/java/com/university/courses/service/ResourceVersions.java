@@ -0,0 +1,217 @@
+package com.university.courses.service;
+
+import com.university.courses.entity.CatalogVersion;
+import com.university.courses.event.CatalogStampChangedEvent;
+import com.university.courses.event.CourseCatalogChangedEvent;
+import com.university.courses.event.CourseCountsChangedEvent;
+import com.university.courses.repository.CatalogVersionRepository;
+import com.university.courses.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Database change stamps behind the weak ETags on catalog and portal GETs, so every instance computes
+ * the same tag and a restart changes none. A controller computes the tag before running any query and
+ * answers 304 when it matches {@code If-None-Match}; a {@code null} tag means the response goes out
+ * without one.
+ * <p>
+ * The catalog stamp is the single {@link CatalogVersion} row. Course writes bump its definitions
+ * revision in their own transaction. Seat count changes only mark this instance's counts as changed;
+ * {@link #refresh()} bumps the counts revision once for all of them and reads the row back, off the
+ * request path, so a GET never queries for its catalog tag and keeps being answered from the caches
+ * while the database is unreachable. A client may therefore see seat counts up to one refresh
+ * interval old under a 304. A student's stamp adds their {@code records_revision}, bumped in the same
+ * transaction as any change to their profile, registrations or results.
+ * <p>
+ * Catalog bodies come from in-memory caches that only see this instance's writes. When a refresh finds
+ * revisions it cannot account for, another instance wrote, and it publishes a {@link CatalogStampChangedEvent}
+ * before exposing the new stamp, so the caches are cleared before any body goes out under it.
+ */
+@Component
+@Slf4j
+public class ResourceVersions {
+    
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final StudentRepository studentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    /** Counter writes run in a transaction of their own, including from after-commit callbacks. */
+    private final TransactionTemplate ownTransaction;
+    
+    /** Course writes committed on this instance and not yet seen by a refresh. */
+    private final AtomicLong ownDefinitionChanges = new AtomicLong();
+    private final AtomicBoolean ownCountsChanged = new AtomicBoolean();
+    /** This instance's bumps since {@link #catalogStamp} was read; guarded by {@code this}. */
+    private long pendingDefinitionChanges;
+    private long pendingCountChanges;
+    private volatile Stamp catalogStamp;
+    
+    public ResourceVersions(
+            CatalogVersionRepository catalogVersionRepository,
+            StudentRepository studentRepository,
+            ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.studentRepository = studentRepository;
+        this.eventPublisher = eventPublisher;
+        this.ownTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * For a course created, edited or deleted in the caller's transaction. Publishes the
+     * {@link CourseCatalogChangedEvent} that keeps this instance's catalog caches and indexes current.
+     */
+    @Transactional
+    public void courseChanged(Long courseId) {
+        if (catalogVersionRepository.bumpDefinitions() == 0) {
+            createCatalogVersion();
+            catalogVersionRepository.bumpDefinitions();
+        }
+        eventPublisher.publishEvent(new CourseCatalogChangedEvent(courseId));
+    }
+    
+    @Transactional
+    public void studentChanged(Long studentId) {
+        studentRepository.bumpRecordsRevision(List.of(studentId));
+    }
+    
+    @Transactional
+    public void studentsChanged(Collection<Long> studentIds) {
+        if (!studentIds.isEmpty()) {
+            studentRepository.bumpRecordsRevision(studentIds);
+        }
+    }
+    
+    /** For course listings, which include seat counts. */
+    public String catalogTag() {
+        Stamp catalog = catalogStamp;
+        return catalog != null ? tag(catalog.definitions(), catalog.counts()) : null;
+    }
+    
+    /** For a student's registrations and results, which show course names but not counts. */
+    public String studentRecordsTag(Long studentId) {
+        Stamp catalog = catalogStamp;
+        String student = studentStamp(studentId);
+        return catalog != null && student != null ? tag(catalog.definitions(), student) : null;
+    }
+    
+    /** For a student's course listings and dashboard, which show both. */
+    public String studentCoursesTag(Long studentId) {
+        Stamp catalog = catalogStamp;
+        String student = studentStamp(studentId);
+        return catalog != null && student != null ? tag(catalog.definitions(), catalog.counts(), student) : null;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        ownDefinitionChanges.incrementAndGet();
+        // Course edits are rare and admins expect to see them at once
+        refresh();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountsChanged(CourseCountsChangedEvent event) {
+        ownCountsChanged.set(true);
+    }
+    
+    /**
+     * Publishes this instance's seat count changes and re-reads the catalog stamp. A failure keeps
+     * the last stamp, so tags and cached bodies stay consistent until the database answers again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${catalog.version.refresh-interval:1000}",
+            fixedDelayString = "${catalog.version.refresh-interval:1000}"
+    )
+    public synchronized void refresh() {
+        pendingDefinitionChanges += ownDefinitionChanges.getAndSet(0);
+        Stamp stamp;
+        try {
+            if (ownCountsChanged.getAndSet(false)) {
+                bumpCounts();
+                pendingCountChanges++;
+            }
+            stamp = readStamp();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not refresh the catalog version, keeping the last one: {}", e.getMessage());
+            return;
+        }
+        
+        Stamp last = catalogStamp;
+        if (last != null && !stamp.equals(last)) {
+            // A commit on this instance that the refresh saw before its event arrived reads as foreign
+            // here; that costs one extra cache clear, never a stale body
+            boolean foreignDefinitions = stamp.definitions() != last.definitions() + pendingDefinitionChanges;
+            boolean foreignCounts = stamp.counts() != last.counts() + pendingCountChanges;
+            if (foreignDefinitions || foreignCounts) {
+                eventPublisher.publishEvent(new CatalogStampChangedEvent(foreignDefinitions));
+            }
+        }
+        pendingDefinitionChanges = 0;
+        pendingCountChanges = 0;
+        catalogStamp = stamp;
+    }
+    
+    private void bumpCounts() {
+        if (ownTransaction.execute(status -> catalogVersionRepository.bumpCounts()) == 0) {
+            createCatalogVersion();
+            ownTransaction.executeWithoutResult(status -> catalogVersionRepository.bumpCounts());
+        }
+    }
+    
+    private Stamp readStamp() {
+        String stamp = catalogVersionRepository.findStamp().orElse(null);
+        if (stamp == null) {
+            createCatalogVersion();
+            stamp = catalogVersionRepository.findStamp().orElseThrow();
+        }
+        String[] parts = stamp.split("/");
+        return new Stamp(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+    
+    private void createCatalogVersion() {
+        try {
+            ownTransaction.executeWithoutResult(status ->
+                    catalogVersionRepository.saveAndFlush(new CatalogVersion(CatalogVersion.ID, 0L, 0L)));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+    
+    private String studentStamp(Long studentId) {
+        try {
+            return "s" + studentId + "." + studentRepository.findRecordsRevision(studentId).orElse(0L);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not read the records revision of student {}: {}", studentId, e.getMessage());
+            return null;
+        }
+    }
+    
+    private static String tag(Object... parts) {
+        StringBuilder tag = new StringBuilder("W/\"");
+        for (int i = 0; i < parts.length; i++) {
+            tag.append(i == 0 ? "" : "-").append(parts[i]);
+        }
+        return tag.append('"').toString();
+    }
+    
+    private record Stamp(long definitions, long counts) {
+    }
+}
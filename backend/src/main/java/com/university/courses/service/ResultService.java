@@ -6,8 +6,12 @@ import com.university.courses.exception.ResourceNotFoundException;
 import com.university.courses.repository.ResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,15 +26,16 @@ public class ResultService {
     
     private final ResultRepository resultRepository;
     private final RegistrationService registrationService;
+    private final ResourceVersions resourceVersions;
     
     public List<Result> getAllResults() {
         log.debug("Fetching all results");
         return resultRepository.findAll();
     }
     
-    public Page<Result> getAllResults(Pageable pageable) {
-        log.debug("Fetching results with pagination: {}", pageable);
-        return resultRepository.findAll(pageable);
+    public Window<Result> getResults(ScrollPosition position, Sort sort, int size) {
+        log.debug("Fetching results after position: {}, sort: {}, size: {}", position, sort, size);
+        return resultRepository.findAllBy(position, sort, Limit.of(size));
     }
     
     public Result getResultById(Long id) {
@@ -71,6 +76,7 @@ public class ResultService {
         result.setRegistration(registration);
         result.setMarks(marks);
         result.setFeedback(feedback);
+        resourceVersions.studentChanged(registration.getStudent().getId());
         
         return resultRepository.save(result);
     }
@@ -82,6 +88,7 @@ public class ResultService {
         Result existingResult = getResultById(id);
         existingResult.setMarks(marks);
         existingResult.setFeedback(feedback);
+        resourceVersions.studentChanged(existingResult.getRegistration().getStudent().getId());
         
         return resultRepository.save(existingResult);
     }
@@ -90,11 +97,10 @@ public class ResultService {
     public void deleteResult(Long id) {
         log.debug("Deleting result with id: {}", id);
         
-        if (!resultRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Result not found with id: " + id);
-        }
+        Result result = getResultById(id);
+        resourceVersions.studentChanged(result.getRegistration().getStudent().getId());
         
-        resultRepository.deleteById(id);
+        resultRepository.delete(result);
     }
     
     public BigDecimal getAverageMarksByCourseId(Long courseId) {
@@ -0,0 +1,185 @@
+package com.university.courses.service;
+
+import com.university.courses.dto.SeatAvailabilityDTO;
+import com.university.courses.event.CourseCountsChangedEvent;
+import com.university.courses.event.CourseSeatsChangedEvent;
+import com.university.courses.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes seat counts to Server-Sent Event subscribers. Count changes only mark their course as dirty;
+ * once per interval the dirty courses are read in one query and the batch is offered to every
+ * subscriber, so a course produces at most one update per interval however busy it is. Each
+ * subscriber has a small bounded buffer drained by its own virtual thread, and a subscriber whose
+ * buffer is full is disconnected rather than buffered further; it gets a fresh snapshot on reconnect.
+ */
+@Service
+@Slf4j
+public class SeatAvailabilityStream {
+    
+    private static final String SEATS_SQL =
+            "SELECT id, max_enrollment, enrolled_count, waitlist_count FROM courses";
+    
+    private static final RowMapper<SeatAvailabilityDTO> SEATS_ROW_MAPPER = (rs, rowNum) -> {
+        Integer maxEnrollment = rs.getObject("max_enrollment", Integer.class);
+        int enrolled = rs.getInt("enrolled_count");
+        return new SeatAvailabilityDTO(
+                rs.getLong("id"),
+                maxEnrollment,
+                enrolled,
+                rs.getInt("waitlist_count"),
+                maxEnrollment != null ? Math.max(0, maxEnrollment - enrolled) : null
+        );
+    };
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Set<Long> dirtyCourses = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    /** Shared by subscribers that connect between two publishes; cleared whenever counts move. */
+    private List<SeatAvailabilityDTO> snapshot;
+    
+    public SeatAvailabilityStream(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${registration.seats.stream.buffer-size:16}") int bufferSize,
+            @Value("${registration.seats.stream.max-subscribers:5000}") int maxSubscribers,
+            @Value("${registration.seats.stream.timeout:1800000}") long timeoutMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    /**
+     * Opens a stream that starts with a {@code snapshot} event for every course and continues with
+     * {@code seats} events carrying the courses that changed since the previous one.
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many seat availability subscribers, please retry shortly", 30);
+        }
+        
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), new ArrayBlockingQueue<>(bufferSize));
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        
+        // Under the publish lock, so every change is either in the snapshot or in a later update
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = jdbcTemplate.query(SEATS_SQL, SEATS_ROW_MAPPER);
+            }
+            subscriber.queue.offer(SseEmitter.event().name("snapshot").data(snapshot).build());
+            subscribers.add(subscriber);
+        }
+        Thread.ofVirtual().name("seat-stream-subscriber").start(subscriber::drain);
+        log.debug("Seat availability subscriber connected, {} active", subscribers.size());
+        return subscriber.emitter;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountsChanged(CourseCountsChangedEvent event) {
+        dirtyCourses.add(event.courseId());
+    }
+    
+    /**
+     * Capacity changes alter the available seats without touching the counts.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(CourseSeatsChangedEvent event) {
+        dirtyCourses.add(event.courseId());
+    }
+    
+    @Scheduled(fixedDelayString = "${registration.seats.stream.interval:1000}")
+    public synchronized void publishChanges() {
+        if (dirtyCourses.isEmpty()) {
+            return;
+        }
+        List<Long> courseIds = new ArrayList<>(dirtyCourses);
+        dirtyCourses.removeAll(courseIds);
+        snapshot = null;
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        
+        List<SeatAvailabilityDTO> changes = jdbcTemplate.query(
+                SEATS_SQL + " WHERE id IN (:courseIds)", Map.of("courseIds", courseIds), SEATS_ROW_MAPPER);
+        if (!changes.isEmpty()) {
+            offerToAll(SseEmitter.event().name("seats").data(changes).build());
+        }
+    }
+    
+    /**
+     * Keeps idle connections open through proxies and notices clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${registration.seats.stream.heartbeat-interval:15000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            offerToAll(SseEmitter.event().comment("heartbeat").build());
+        }
+    }
+    
+    /**
+     * Events are built once and shared; a built event is an immutable set of chunks.
+     */
+    private void offerToAll(Set<DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(event)) {
+                log.debug("Dropping slow seat availability subscriber");
+                subscriber.close();
+            }
+        }
+    }
+    
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        
+        private Subscriber(SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+        
+        private void drain() {
+            try {
+                while (subscribers.contains(this)) {
+                    emitter.send(queue.take());
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+            }
+        }
+        
+        private void close() {
+            if (subscribers.remove(this)) {
+                emitter.complete();
+                // Wake the drainer so it notices it has been removed
+                queue.clear();
+                queue.offer(Set.of());
+            }
+        }
+    }
+}
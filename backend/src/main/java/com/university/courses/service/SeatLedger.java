@@ -0,0 +1,89 @@
+package com.university.courses.service;
+
+import com.university.courses.event.CourseCountsChangedEvent;
+import com.university.courses.event.CourseSeatsChangedEvent;
+import com.university.courses.exception.ResourceNotFoundException;
+import com.university.courses.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Seats are taken and given back on the course row's {@code enrolled_count}, so the database decides
+ * and capacity holds however many instances are running. A single seat is one conditional update;
+ * several seats lock the row, read what is free and take it. Either way the row stays locked until
+ * the caller's transaction ends, so a rollback hands the seats back with everything else.
+ * <p>
+ * Every change publishes a {@link CourseCountsChangedEvent}; releases also publish a
+ * {@link CourseSeatsChangedEvent} so waitlisted students can be promoted.
+ */
+@Component
+@Slf4j
+public class SeatLedger {
+    
+    private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public SeatLedger(CourseRepository courseRepository, ApplicationEventPublisher eventPublisher) {
+        this.courseRepository = courseRepository;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    /**
+     * Takes a seat if one is free. Returns false when the course is full.
+     */
+    @Transactional
+    public boolean tryReserve(Long courseId) {
+        if (courseRepository.takeSeat(courseId) == 0) {
+            if (!courseRepository.existsById(courseId)) {
+                throw new ResourceNotFoundException("Course not found with id: " + courseId);
+            }
+            return false;
+        }
+        eventPublisher.publishEvent(new CourseCountsChangedEvent(courseId));
+        return true;
+    }
+    
+    /**
+     * Takes up to {@code count} seats in one step and returns how many were actually taken.
+     */
+    @Transactional
+    public int tryReserve(Long courseId, int count) {
+        if (count <= 0) {
+            return 0;
+        }
+        int reserved = courseRepository.lockFreeSeats(courseId, count)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+        if (reserved > 0) {
+            courseRepository.adjustCounts(courseId, reserved, 0);
+            eventPublisher.publishEvent(new CourseCountsChangedEvent(courseId));
+        }
+        return reserved;
+    }
+    
+    public void release(Long courseId) {
+        release(courseId, 1);
+    }
+    
+    @Transactional
+    public void release(Long courseId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        courseRepository.adjustCounts(courseId, -count, 0);
+        eventPublisher.publishEvent(new CourseCountsChangedEvent(courseId));
+        eventPublisher.publishEvent(new CourseSeatsChangedEvent(courseId));
+    }
+    
+    /**
+     * Returns seats reserved earlier in this transaction that turned out not to be needed.
+     * Unlike {@link #release(Long, int)} this does not announce the seats as newly free.
+     */
+    @Transactional
+    public void cancelReservation(Long courseId, int count) {
+        if (count > 0) {
+            courseRepository.adjustCounts(courseId, -count, 0);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.university.courses.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.courses.bulk.ImportRecord;
+import com.university.courses.bulk.RecordFormat;
+import com.university.courses.bulk.RecordReader;
+import com.university.courses.dto.StudentImportReport;
+import com.university.courses.entity.Student;
+import com.university.courses.event.StudentsChangedEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports registrar student extracts (CSV or NDJSON, one student per row) as an upsert keyed on
+ * student ID, so re-running the same file updates rows in place instead of failing or duplicating.
+ * <p>
+ * The upload is streamed in chunks. Each chunk is validated in parallel against the {@link Student}
+ * constraints, then checked in file order against student ID and email maps loaded once per import,
+ * and written with one JDBC batch in its own transaction. A failed batch fails only its own rows, and
+ * the maps keep a chunk's student IDs and emails only once its transaction has committed.
+ */
+@Service
+@Slf4j
+public class StudentImportService {
+    
+    // VALUES() rather than a row alias so the statement also runs on H2 in MySQL mode
+    private static final String UPSERT_STUDENT_SQL =
+            "INSERT INTO students (student_id, first_name, last_name, email, phone_number, date_of_birth, " +
+            "department, enrollment_year, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE first_name = VALUES(first_name), last_name = VALUES(last_name), " +
+            "email = VALUES(email), phone_number = VALUES(phone_number), date_of_birth = VALUES(date_of_birth), " +
+            "department = VALUES(department), enrollment_year = VALUES(enrollment_year), updated_at = VALUES(updated_at)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ResourceVersions resourceVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    
+    public StudentImportService(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ResourceVersions resourceVersions,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${students.import.batch-size:1000}") int batchSize,
+            @Value("${students.import.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.resourceVersions = resourceVersions;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+    
+    public StudentImportReport importStudents(InputStream input, RecordFormat format) throws IOException {
+        log.debug("Importing students from {} upload", format);
+        
+        KnownStudents known = loadKnownStudents();
+        StudentImportReport report = new StudentImportReport();
+        List<ImportRecord> chunk = new ArrayList<>(batchSize);
+        
+        try (RecordReader reader = new RecordReader(input, format, objectMapper)) {
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, known, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, known, report);
+        }
+        
+        log.info("Student import finished - rows: {}, created: {}, updated: {}, failed: {}",
+                report.getTotalRows(), report.getCreated(), report.getUpdated(), report.getFailed());
+        return report;
+    }
+    
+    private void importChunk(List<ImportRecord> chunk, KnownStudents known, StudentImportReport report) {
+        // Parsing and bean validation are independent per row; the uniqueness checks below are not
+        List<ParsedRow> parsed = chunk.parallelStream().map(this::parse).toList();
+        
+        List<ParsedRow> accepted = new ArrayList<>(parsed.size());
+        for (ParsedRow row : parsed) {
+            if (row.error() != null) {
+                report.addFailed(row.line(), row.studentId(), row.error(), maxReportedErrors);
+                continue;
+            }
+            boolean existed = known.contains(row.studentId());
+            String conflict = known.claim(row);
+            if (conflict != null) {
+                report.addFailed(row.line(), row.studentId(), conflict, maxReportedErrors);
+                continue;
+            }
+            accepted.add(existed ? row.asExisting() : row);
+        }
+        
+        if (accepted.isEmpty()) {
+            known.keepClaims();
+        } else {
+            try {
+                transactionTemplate.executeWithoutResult(status -> upsert(accepted));
+                known.keepClaims();
+                accepted.forEach(row -> {
+                    if (row.existed()) {
+                        report.addUpdated();
+                    } else {
+                        report.addCreated();
+                    }
+                });
+            } catch (DataAccessException e) {
+                known.dropClaims();
+                log.warn("Student import batch of {} rows failed: {}", accepted.size(), e.getMostSpecificCause().getMessage());
+                accepted.forEach(row -> report.addFailed(row.line(), row.studentId(),
+                        "Batch write failed: " + e.getMostSpecificCause().getMessage(), maxReportedErrors));
+            }
+        }
+        
+        log.info("Student import progress - rows: {}, created: {}, updated: {}, failed: {}",
+                report.getTotalRows(), report.getCreated(), report.getUpdated(), report.getFailed());
+    }
+    
+    private void upsert(List<ParsedRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_STUDENT_SQL, rows, batchSize, (ps, row) -> {
+            Student student = row.student();
+            ps.setString(1, student.getStudentId());
+            ps.setString(2, student.getFirstName());
+            ps.setString(3, student.getLastName());
+            ps.setString(4, student.getEmail());
+            ps.setString(5, student.getPhoneNumber());
+            ps.setDate(6, student.getDateOfBirth() != null ? Date.valueOf(student.getDateOfBirth()) : null);
+            ps.setString(7, student.getDepartment());
+            ps.setObject(8, student.getEnrollmentYear(), Types.INTEGER);
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+        
+        List<Long> ids = namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM students WHERE student_id IN (:studentIds)",
+                Map.of("studentIds", rows.stream().map(ParsedRow::studentId).distinct().toList()),
+                Long.class);
+        resourceVersions.studentsChanged(ids);
+        eventPublisher.publishEvent(new StudentsChangedEvent(ids));
+    }
+    
+    private ParsedRow parse(ImportRecord record) {
+        String studentId = record.get("studentId");
+        if (record.error() != null) {
+            return ParsedRow.failed(record.line(), studentId, record.error());
+        }
+        
+        try {
+            Student student = new Student();
+            student.setStudentId(studentId);
+            student.setFirstName(record.get("firstName"));
+            student.setLastName(record.get("lastName"));
+            student.setEmail(require(record.get("email"), "Email"));
+            student.setPhoneNumber(record.get("phoneNumber"));
+            student.setDateOfBirth(record.getDate("dateOfBirth"));
+            student.setDepartment(record.get("department"));
+            student.setEnrollmentYear(record.getInteger("enrollmentYear"));
+            
+            Set<ConstraintViolation<Student>> violations = validator.validate(student);
+            if (!violations.isEmpty()) {
+                return ParsedRow.failed(record.line(), studentId, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            // Column sizes, which bean validation does not cover
+            maxLength(student.getStudentId(), "Student ID", 20);
+            maxLength(student.getFirstName(), "First name", 50);
+            maxLength(student.getLastName(), "Last name", 50);
+            maxLength(student.getEmail(), "Email", 100);
+            maxLength(student.getPhoneNumber(), "Phone number", 15);
+            maxLength(student.getDepartment(), "Department", 100);
+            return new ParsedRow(record.line(), studentId, student, null, false);
+        } catch (IllegalArgumentException e) {
+            return ParsedRow.failed(record.line(), studentId, e.getMessage());
+        }
+    }
+    
+    private static String require(String value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+    
+    private static void maxLength(String value, String field, int max) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(field + " must be at most " + max + " characters");
+        }
+    }
+    
+    private KnownStudents loadKnownStudents() {
+        KnownStudents known = new KnownStudents();
+        jdbcTemplate.query("SELECT LOWER(student_id) AS student_id, LOWER(email) AS email FROM students",
+                (RowCallbackHandler) rs -> known.put(rs.getString("student_id"), rs.getString("email")));
+        return known;
+    }
+    
+    private record ParsedRow(long line, String studentId, Student student, String error, boolean existed) {
+        
+        private static ParsedRow failed(long line, String studentId, String error) {
+            return new ParsedRow(line, studentId, null, error, false);
+        }
+        
+        private ParsedRow asExisting() {
+            return new ParsedRow(line, studentId, student, error, true);
+        }
+    }
+    
+    /**
+     * Student ID and email ownership as of the start of the import plus the rows written since.
+     * Keys are lower-cased to match the database's case-insensitive unique indexes.
+     * <p>
+     * Claims take effect at once, so later rows of the same chunk see them, but stay staged until
+     * {@link #keepClaims()}; {@link #dropClaims()} undoes them when the chunk's write fails.
+     */
+    private static final class KnownStudents {
+        private final Map<String, String> emailByStudentId = new HashMap<>();
+        private final Map<String, String> studentIdByEmail = new HashMap<>();
+        private final List<Claim> staged = new ArrayList<>();
+        
+        private boolean contains(String studentId) {
+            return emailByStudentId.containsKey(studentId.toLowerCase(Locale.ROOT));
+        }
+        
+        private void put(String studentId, String email) {
+            String previousEmail = emailByStudentId.put(studentId, email);
+            if (previousEmail != null) {
+                studentIdByEmail.remove(previousEmail);
+            }
+            studentIdByEmail.put(email, studentId);
+        }
+        
+        /**
+         * Stages the row's student ID and email, or returns why it cannot be written. An email owned by
+         * another student is rejected, since the upsert would otherwise overwrite that student.
+         */
+        private String claim(ParsedRow row) {
+            String studentId = row.student().getStudentId().toLowerCase(Locale.ROOT);
+            String email = row.student().getEmail().toLowerCase(Locale.ROOT);
+            String owner = studentIdByEmail.get(email);
+            if (owner != null && !owner.equals(studentId)) {
+                return "Email " + row.student().getEmail() + " already belongs to another student";
+            }
+            staged.add(new Claim(studentId, email, emailByStudentId.get(studentId), owner));
+            put(studentId, email);
+            return null;
+        }
+        
+        private void keepClaims() {
+            staged.clear();
+        }
+        
+        /** Restores the maps to their state before the first staged claim, newest claim first. */
+        private void dropClaims() {
+            for (int i = staged.size() - 1; i >= 0; i--) {
+                Claim claim = staged.get(i);
+                if (claim.previousEmail() == null) {
+                    emailByStudentId.remove(claim.studentId());
+                } else {
+                    emailByStudentId.put(claim.studentId(), claim.previousEmail());
+                }
+                if (claim.previousOwner() == null) {
+                    studentIdByEmail.remove(claim.email());
+                } else {
+                    studentIdByEmail.put(claim.email(), claim.previousOwner());
+                }
+                if (claim.previousEmail() != null) {
+                    studentIdByEmail.put(claim.previousEmail(), claim.studentId());
+                }
+            }
+            staged.clear();
+        }
+        
+        private record Claim(String studentId, String email, String previousEmail, String previousOwner) {
+        }
+    }
+}
@@ -3,20 +3,26 @@ package com.university.courses.service;
 import com.university.courses.dto.CourseDTO;
 import com.university.courses.dto.RegistrationDTO;
 import com.university.courses.dto.ResultDTO;
+import com.university.courses.dto.StudentDashboardDTO;
 import com.university.courses.entity.Course;
 import com.university.courses.entity.Registration;
 import com.university.courses.entity.Result;
-import com.university.courses.entity.User;
-import com.university.courses.exception.ResourceNotFoundException;
-import com.university.courses.repository.UserRepository;
+import com.university.courses.repository.CourseRepository;
+import com.university.courses.security.CurrentStudentContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,40 +31,116 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class StudentPortalService {
     
-    private final UserRepository userRepository;
-    private final CourseService courseService;
+    private final CurrentStudentContext currentStudentContext;
+    private final CourseRepository courseRepository;
     private final RegistrationService registrationService;
     private final ResultService resultService;
     
-    public List<CourseDTO> getAvailableCoursesForStudent() {
-        User currentUser = getCurrentUser();
-        if (currentUser.getStudent() == null) {
-            throw new IllegalStateException("Current user is not a student");
-        }
-        
-        List<Course> allCourses = courseService.getAllCourses();
-        List<Registration> studentRegistrations = registrationService
-                .getRegistrationsByStudentId(currentUser.getStudent().getId());
+    /**
+     * Courses the current student is neither enrolled nor waitlisted in, filtered and paged in the database.
+     */
+    public List<CourseDTO> getAvailableCoursesForStudent(
+            String title,
+            String department,
+            Integer minCredits,
+            Integer maxCredits,
+            Pageable pageable
+    ) {
+        Long studentId = currentStudentContext.requireStudentId();
         
-        List<Long> enrolledCourseIds = studentRegistrations.stream()
-                .filter(reg -> reg.getStatus() == Registration.RegistrationStatus.ENROLLED)
-                .map(reg -> reg.getCourse().getId())
-                .collect(Collectors.toList());
+        return courseRepository.findAvailableForStudent(
+                studentId,
+                List.of(Registration.RegistrationStatus.ENROLLED, Registration.RegistrationStatus.WAITLISTED),
+                title,
+                department,
+                minCredits,
+                maxCredits,
+                pageable
+        );
+    }
+    
+    /**
+     * Everything the student portal shows, in one call. The registrations, results and available-course
+     * queries are independent, so they run concurrently on virtual threads, and the registration list is
+     * loaded once for both the enrolled courses and the registrations. The student id is resolved here,
+     * on the request thread, because the request-scoped context is not visible to the workers.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StudentDashboardDTO getDashboard(Pageable availablePage) {
+        Long studentId = currentStudentContext.requireStudentId();
+        List<Registration.RegistrationStatus> activeStatuses =
+                List.of(Registration.RegistrationStatus.ENROLLED, Registration.RegistrationStatus.WAITLISTED);
         
-        return allCourses.stream()
-                .filter(course -> !enrolledCourseIds.contains(course.getId()))
-                .map(this::convertCourseToDTO)
-                .collect(Collectors.toList());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<Registration>> registrations = executor.submit(() ->
+                    registrationService.getRegistrationsByStudentId(studentId));
+            Future<List<Result>> results = executor.submit(() ->
+                    resultService.getResultsByStudentId(studentId));
+            Future<List<CourseDTO>> available = executor.submit(() ->
+                    courseRepository.findAvailableForStudent(studentId, activeStatuses, null, null, null, null, availablePage));
+            
+            StudentDashboardDTO dashboard = new StudentDashboardDTO();
+            List<Registration> studentRegistrations = await(registrations);
+            dashboard.setRegistrations(studentRegistrations.stream()
+                    .map(this::convertRegistrationToDTO)
+                    .collect(Collectors.toList()));
+            dashboard.setEnrolledCourses(studentRegistrations.stream()
+                    .filter(reg -> reg.getStatus() == Registration.RegistrationStatus.ENROLLED)
+                    .map(reg -> convertCourseToDTO(reg.getCourse()))
+                    .collect(Collectors.toList()));
+            dashboard.setEnrolledCredits(sumCredits(studentRegistrations, Registration.RegistrationStatus.ENROLLED));
+            dashboard.setCompletedCredits(sumCredits(studentRegistrations, Registration.RegistrationStatus.COMPLETED));
+            
+            List<ResultDTO> resultDTOs = await(results).stream()
+                    .map(this::convertResultToDTO)
+                    .collect(Collectors.toList());
+            dashboard.setResults(resultDTOs);
+            dashboard.setGpa(averageGpa(resultDTOs));
+            
+            dashboard.setAvailableCourses(await(available));
+            return dashboard;
+        }
     }
     
-    public List<CourseDTO> getEnrolledCoursesForStudent() {
-        User currentUser = getCurrentUser();
-        if (currentUser.getStudent() == null) {
-            throw new IllegalStateException("Current user is not a student");
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the dashboard", e);
+        }
+    }
+    
+    private static int sumCredits(List<Registration> registrations, Registration.RegistrationStatus status) {
+        return registrations.stream()
+                .filter(reg -> reg.getStatus() == status)
+                .mapToInt(reg -> reg.getCourse().getCredits() != null ? reg.getCourse().getCredits() : 0)
+                .sum();
+    }
+    
+    /**
+     * Same figure the portal used to compute client-side: the mean of the result GPA points.
+     */
+    private static BigDecimal averageGpa(List<ResultDTO> results) {
+        if (results.isEmpty()) {
+            return null;
         }
+        BigDecimal total = results.stream()
+                .map(result -> result.getGpaPoints() != null ? result.getGpaPoints() : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return total.divide(BigDecimal.valueOf(results.size()), 2, RoundingMode.HALF_UP);
+    }
+    
+    public List<CourseDTO> getEnrolledCoursesForStudent() {
+        Long studentId = currentStudentContext.requireStudentId();
         
         List<Registration> registrations = registrationService
-                .getRegistrationsByStudentId(currentUser.getStudent().getId());
+                .getRegistrationsByStudentId(studentId);
         
         return registrations.stream()
                 .filter(reg -> reg.getStatus() == Registration.RegistrationStatus.ENROLLED)
@@ -67,13 +149,10 @@ public class StudentPortalService {
     }
     
     public List<RegistrationDTO> getStudentRegistrations() {
-        User currentUser = getCurrentUser();
-        if (currentUser.getStudent() == null) {
-            throw new IllegalStateException("Current user is not a student");
-        }
+        Long studentId = currentStudentContext.requireStudentId();
         
         List<Registration> registrations = registrationService
-                .getRegistrationsByStudentId(currentUser.getStudent().getId());
+                .getRegistrationsByStudentId(studentId);
         
         return registrations.stream()
                 .map(this::convertRegistrationToDTO)
@@ -81,13 +160,10 @@ public class StudentPortalService {
     }
     
     public List<ResultDTO> getStudentResults() {
-        User currentUser = getCurrentUser();
-        if (currentUser.getStudent() == null) {
-            throw new IllegalStateException("Current user is not a student");
-        }
+        Long studentId = currentStudentContext.requireStudentId();
         
         List<Result> results = resultService
-                .getResultsByStudentId(currentUser.getStudent().getId());
+                .getResultsByStudentId(studentId);
         
         return results.stream()
                 .map(this::convertResultToDTO)
@@ -96,13 +172,16 @@ public class StudentPortalService {
     
     @Transactional
     public RegistrationDTO enrollInCourse(Long courseId) {
-        User currentUser = getCurrentUser();
-        if (currentUser.getStudent() == null) {
-            throw new IllegalStateException("Current user is not a student");
-        }
-        
+        return enrollStudent(currentStudentContext.requireStudentId(), courseId);
+    }
+    
+    /**
+     * Enrolls the given student; used where no request is bound to the thread, e.g. by the rush-mode queue.
+     */
+    @Transactional
+    public RegistrationDTO enrollStudent(Long studentId, Long courseId) {
         Registration registration = registrationService.createRegistration(
-                currentUser.getStudent().getId(),
+                studentId,
                 courseId,
                 "Self-enrolled through student portal"
         );
@@ -112,13 +191,10 @@ public class StudentPortalService {
     
     @Transactional
     public void unenrollFromCourse(Long courseId) {
-        User currentUser = getCurrentUser();
-        if (currentUser.getStudent() == null) {
-            throw new IllegalStateException("Current user is not a student");
-        }
+        Long studentId = currentStudentContext.requireStudentId();
         
         Registration registration = registrationService.getRegistrationByStudentAndCourse(
-                currentUser.getStudent().getId(),
+                studentId,
                 courseId
         );
         
@@ -128,14 +204,6 @@ public class StudentPortalService {
         );
     }
     
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-    }
-    
     private CourseDTO convertCourseToDTO(Course course) {
         CourseDTO dto = new CourseDTO();
         dto.setId(course.getId());
@@ -148,8 +216,8 @@ public class StudentPortalService {
         dto.setCreatedAt(course.getCreatedAt());
         dto.setUpdatedAt(course.getUpdatedAt());
         
-        long currentEnrollment = registrationService.getEnrolledCountByCourse(course.getId());
-        dto.setCurrentEnrollment((int) currentEnrollment);
+        dto.setCurrentEnrollment(course.getEnrolledCount());
+        dto.setWaitlistCount(course.getWaitlistCount());
         
         return dto;
     }
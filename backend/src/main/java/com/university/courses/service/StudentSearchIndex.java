@@ -0,0 +1,304 @@
+package com.university.courses.service;
+
+import com.university.courses.event.StudentsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory n-gram index over student full name, student ID and email, so the admin student search
+ * never runs a {@code LIKE '%...%'} scan. Every one, two and three character substring has a posting
+ * list: a query of three or more characters intersects the lists of its trigrams and only checks the
+ * few candidates left, and a shorter query reads the list of the query itself. Either way the cost
+ * depends on how many students match, not on how many exist.
+ * <p>
+ * Changes arrive through {@link StudentsChangedEvent} after commit: a changed student is re-read and
+ * appended, and its old entry is only marked deleted. The periodic rebuild drops those dead entries
+ * and picks up changes made through other instances.
+ */
+@Component
+@Slf4j
+public class StudentSearchIndex {
+    
+    private static final String STUDENTS_SQL =
+            "SELECT id, student_id, first_name, last_name, email, department, enrollment_year FROM students";
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    /** Keeps a query from matching across two fields. */
+    private static final char FIELD_SEPARATOR = '\u0000';
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Students changed while a rebuild was reading the table; re-applied to the rebuilt index. */
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    
+    private Index index = new Index();
+    private boolean rebuilding;
+    
+    public StudentSearchIndex(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Students whose name, student ID or email contains {@code query}, ordered by name.
+     */
+    public Result search(String query, String department, Integer enrollmentYear, Pageable pageable) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            return index.search(needle, department != null ? department.toLowerCase(Locale.ROOT) : null,
+                    enrollmentYear, (int) pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${students.search.rebuild-interval:600000}",
+            fixedDelayString = "${students.search.rebuild-interval:600000}"
+    )
+    public void rebuild() {
+        synchronized (changedDuringRebuild) {
+            rebuilding = true;
+        }
+        
+        Index rebuilt = new Index();
+        jdbcTemplate.query(STUDENTS_SQL, (RowCallbackHandler) rs -> rebuilt.add(row(rs)));
+        log.info("Rebuilt student search index - students: {}, grams: {}", rebuilt.live(), rebuilt.postings.size());
+        
+        Set<Long> changed;
+        synchronized (changedDuringRebuild) {
+            lock.writeLock().lock();
+            try {
+                index = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding = false;
+            changed = new HashSet<>(changedDuringRebuild);
+            changedDuringRebuild.clear();
+        }
+        if (!changed.isEmpty()) {
+            apply(changed);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        synchronized (changedDuringRebuild) {
+            if (rebuilding) {
+                changedDuringRebuild.addAll(event.studentIds());
+            }
+        }
+        apply(event.studentIds());
+    }
+    
+    /**
+     * Re-reads the students and replaces their entries; ids that no longer exist are dropped.
+     * Serialized, so two changes to one student are always applied in order.
+     */
+    private synchronized void apply(Collection<Long> studentIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + LOAD_CHUNK_SIZE));
+            List<Row> rows = jdbcTemplate.query(STUDENTS_SQL + " WHERE id IN (:ids)", Map.of("ids", chunk),
+                    (rs, rowNum) -> row(rs));
+            
+            lock.writeLock().lock();
+            try {
+                chunk.forEach(index::remove);
+                rows.forEach(index::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    private static Row row(ResultSet rs) throws SQLException {
+        String firstName = rs.getString("first_name");
+        String lastName = rs.getString("last_name");
+        String name = (firstName + " " + lastName).toLowerCase(Locale.ROOT);
+        String department = rs.getString("department");
+        return new Row(
+                rs.getLong("id"),
+                name + FIELD_SEPARATOR + rs.getString("student_id").toLowerCase(Locale.ROOT)
+                        + FIELD_SEPARATOR + rs.getString("email").toLowerCase(Locale.ROOT),
+                name,
+                department != null ? department.toLowerCase(Locale.ROOT) : null,
+                rs.getObject("enrollment_year", Integer.class)
+        );
+    }
+    
+    /**
+     * One page of matching student ids and the total number of matches.
+     */
+    public record Result(List<Long> studentIds, long total) {
+    }
+    
+    private record Row(long id, String text, String name, String department, Integer enrollmentYear) {
+    }
+    
+    /**
+     * Entries are numbered in insertion order, so every posting list is sorted without any extra work.
+     * Not thread-safe; guarded by the outer read-write lock.
+     */
+    private static final class Index {
+        private static final int MAX_GRAM = 3;
+        
+        private final Map<Long, IntList> postings = new HashMap<>();
+        private final Map<Long, Integer> entryByStudent = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+        private Row[] rows = new Row[1024];
+        private int size;
+        
+        private void add(Row row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            int entry = size++;
+            rows[entry] = row;
+            entryByStudent.put(row.id(), entry);
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                for (long gram : grams(row.text(), length)) {
+                    postings.computeIfAbsent(gram, g -> new IntList()).add(entry);
+                }
+            }
+        }
+        
+        private void remove(Long studentId) {
+            Integer entry = entryByStudent.remove(studentId);
+            if (entry != null) {
+                deleted.set(entry);
+                rows[entry] = null;
+            }
+        }
+        
+        private int live() {
+            return entryByStudent.size();
+        }
+        
+        private Result search(String needle, String department, Integer enrollmentYear, int offset, int limit) {
+            Comparator<Row> byName = Comparator.comparing(Row::name).thenComparingLong(Row::id);
+            // Max-heap of the best offset + limit matches, so a broad query never sorts every match
+            PriorityQueue<Row> best = new PriorityQueue<>(byName.reversed());
+            int keep = offset + limit;
+            long total = 0;
+            
+            for (int entry : candidates(needle)) {
+                Row row = rows[entry];
+                if (row == null || !row.text().contains(needle)
+                        || (department != null && !department.equals(row.department()))
+                        || (enrollmentYear != null && !enrollmentYear.equals(row.enrollmentYear()))) {
+                    continue;
+                }
+                total++;
+                if (best.size() < keep) {
+                    best.add(row);
+                } else if (keep > 0 && byName.compare(row, best.peek()) < 0) {
+                    best.poll();
+                    best.add(row);
+                }
+            }
+            
+            List<Row> page = new ArrayList<>(best);
+            page.sort(byName);
+            List<Long> ids = page.subList(Math.min(offset, page.size()), page.size()).stream().map(Row::id).toList();
+            return new Result(ids, total);
+        }
+        
+        /**
+         * Entries that contain every gram of the needle (the needle itself when it is shorter than a
+         * trigram); every entry for a blank needle.
+         */
+        private int[] candidates(String needle) {
+            if (needle.isEmpty()) {
+                int[] all = new int[size];
+                for (int i = 0; i < size; i++) {
+                    all[i] = i;
+                }
+                return all;
+            }
+            
+            List<IntList> lists = new ArrayList<>();
+            for (long gram : grams(needle, Math.min(needle.length(), MAX_GRAM))) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            
+            IntList smallest = lists.get(0);
+            int[] result = new int[smallest.size];
+            int count = 0;
+            for (int i = 0; i < smallest.size; i++) {
+                int entry = smallest.values[i];
+                if (deleted.get(entry)) {
+                    continue;
+                }
+                boolean inAll = true;
+                for (int l = 1; l < lists.size() && inAll; l++) {
+                    IntList other = lists.get(l);
+                    inAll = Arrays.binarySearch(other.values, 0, other.size, entry) >= 0;
+                }
+                if (inAll) {
+                    result[count++] = entry;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+        
+        /**
+         * The distinct substrings of {@code length} characters, packed with their length so that, say,
+         * the bigram "ab" and the trigram "\0ab" get different keys.
+         */
+        private static Set<Long> grams(String text, int length) {
+            Set<Long> grams = new HashSet<>();
+            for (int i = 0; i + length <= text.length(); i++) {
+                long gram = length;
+                for (int c = i; c < i + length; c++) {
+                    gram = (gram << 16) | text.charAt(c);
+                }
+                grams.add(gram);
+            }
+            return grams;
+        }
+    }
+    
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+        
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
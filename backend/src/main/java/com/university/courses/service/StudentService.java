@@ -1,16 +1,29 @@
 package com.university.courses.service;
 
+import com.university.courses.entity.Registration;
 import com.university.courses.entity.Student;
+import com.university.courses.event.StudentsChangedEvent;
 import com.university.courses.exception.ResourceNotFoundException;
+import com.university.courses.repository.RegistrationRepository;
 import com.university.courses.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,15 +32,21 @@ import java.util.List;
 public class StudentService {
     
     private final StudentRepository studentRepository;
+    private final RegistrationRepository registrationRepository;
+    private final SeatLedger seatLedger;
+    private final EnrollmentCountService enrollmentCountService;
+    private final ResourceVersions resourceVersions;
+    private final StudentSearchIndex studentSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<Student> getAllStudents() {
         log.debug("Fetching all students");
         return studentRepository.findAll();
     }
     
-    public Page<Student> getAllStudents(Pageable pageable) {
-        log.debug("Fetching students with pagination: {}", pageable);
-        return studentRepository.findAll(pageable);
+    public Window<Student> getStudents(ScrollPosition position, Sort sort, int size) {
+        log.debug("Fetching students after position: {}, sort: {}, size: {}", position, sort, size);
+        return studentRepository.findAllBy(position, sort, Limit.of(size));
     }
     
     public Student getStudentById(Long id) {
@@ -60,7 +79,9 @@ public class StudentService {
             throw new IllegalArgumentException("Student with email " + student.getEmail() + " already exists");
         }
         
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        eventPublisher.publishEvent(new StudentsChangedEvent(List.of(saved.getId())));
+        return saved;
     }
     
     @Transactional
@@ -89,6 +110,8 @@ public class StudentService {
         existingStudent.setDateOfBirth(updatedStudent.getDateOfBirth());
         existingStudent.setDepartment(updatedStudent.getDepartment());
         existingStudent.setEnrollmentYear(updatedStudent.getEnrollmentYear());
+        resourceVersions.studentChanged(id);
+        eventPublisher.publishEvent(new StudentsChangedEvent(List.of(id)));
         
         return studentRepository.save(existingStudent);
     }
@@ -101,7 +124,13 @@ public class StudentService {
             throw new ResourceNotFoundException("Student not found with id: " + id);
         }
         
+        // Registrations are removed by cascade, so hand their seats back and fix the course counts
+        registrationRepository.findCourseIdsByStudentIdAndStatus(id, Registration.RegistrationStatus.ENROLLED)
+                .forEach(seatLedger::release);
+        registrationRepository.findCourseIdsByStudentIdAndStatus(id, Registration.RegistrationStatus.WAITLISTED)
+                .forEach(courseId -> enrollmentCountService.adjustWaitlist(courseId, -1));
         studentRepository.deleteById(id);
+        eventPublisher.publishEvent(new StudentsChangedEvent(List.of(id)));
     }
     
     public List<Student> getStudentsByDepartment(String department) {
@@ -112,7 +141,19 @@ public class StudentService {
     public Page<Student> searchStudents(String name, String department, Integer enrollmentYear, Pageable pageable) {
         log.debug("Searching students with filters - name: {}, department: {}, enrollmentYear: {}", 
                  name, department, enrollmentYear);
-        return studentRepository.findStudentsWithFilters(name, department, enrollmentYear, pageable);
+        if (name == null || name.isBlank()) {
+            return studentRepository.findStudentsWithFilters(department, enrollmentYear, pageable);
+        }
+        
+        // The index finds and orders the page; only that page is read from the database
+        StudentSearchIndex.Result result = studentSearchIndex.search(name, department, enrollmentYear, pageable);
+        Map<Long, Student> students = studentRepository.findAllById(result.studentIds()).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        List<Student> page = result.studentIds().stream()
+                .map(students::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(page, pageable, result.total());
     }
     
     public List<String> getAllDepartments() {
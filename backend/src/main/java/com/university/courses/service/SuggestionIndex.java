@@ -0,0 +1,337 @@
+package com.university.courses.service;
+
+import com.university.courses.dto.SuggestionDTO;
+import com.university.courses.event.CourseCatalogChangedEvent;
+import com.university.courses.event.StudentsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead over student names and IDs and course codes and titles, answered from in-memory prefix
+ * tries. A student is reachable as "first last", "last first" and by student ID; a course by code
+ * and by title. Completions come back in key order, and the walk stops once enough distinct matches
+ * are found, so a lookup costs the prefix length plus the completions returned.
+ * <p>
+ * Writes arrive through {@link StudentsChangedEvent} and {@link CourseCatalogChangedEvent} after
+ * commit and re-read only the changed rows. Nodes emptied by removals stay until the periodic
+ * rebuild, which also picks up writes made through other instances.
+ */
+@Component
+@Slf4j
+public class SuggestionIndex {
+    
+    private static final String STUDENTS_SQL = "SELECT id, student_id, first_name, last_name FROM students";
+    private static final String COURSES_SQL = "SELECT id, code, title FROM courses";
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Ids changed while a rebuild was reading the tables; re-applied to the rebuilt tries. */
+    private final Map<SuggestionDTO.Type, Set<Long>> changedDuringRebuild = new EnumMap<>(SuggestionDTO.Type.class);
+    
+    private Map<SuggestionDTO.Type, PrefixTrie> tries = emptyTries();
+    private boolean rebuilding;
+    
+    public SuggestionIndex(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (SuggestionDTO.Type type : SuggestionDTO.Type.values()) {
+            changedDuringRebuild.put(type, new HashSet<>());
+        }
+    }
+    
+    /**
+     * Up to {@code limit} distinct students and courses with a key starting with {@code prefix},
+     * merged in key order.
+     */
+    public List<SuggestionDTO> suggest(String prefix, Set<SuggestionDTO.Type> types, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        List<Completion> completions = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (SuggestionDTO.Type type : types) {
+                tries.get(type).complete(key, limit, completions);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (types.size() > 1) {
+            completions.sort((a, b) -> a.key().compareTo(b.key()));
+        }
+        return completions.stream().limit(limit).map(Completion::suggestion).toList();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${suggest.rebuild-interval:600000}",
+            fixedDelayString = "${suggest.rebuild-interval:600000}"
+    )
+    public void rebuild() {
+        synchronized (changedDuringRebuild) {
+            rebuilding = true;
+        }
+        
+        Map<SuggestionDTO.Type, PrefixTrie> rebuilt = emptyTries();
+        jdbcTemplate.query(STUDENTS_SQL, (RowCallbackHandler) rs ->
+                rebuilt.get(SuggestionDTO.Type.STUDENT).put(student(rs)));
+        jdbcTemplate.query(COURSES_SQL, (RowCallbackHandler) rs ->
+                rebuilt.get(SuggestionDTO.Type.COURSE).put(course(rs)));
+        log.info("Rebuilt suggestion tries - students: {}, courses: {}",
+                rebuilt.get(SuggestionDTO.Type.STUDENT).size(), rebuilt.get(SuggestionDTO.Type.COURSE).size());
+        
+        Map<SuggestionDTO.Type, Set<Long>> changed = new EnumMap<>(SuggestionDTO.Type.class);
+        synchronized (changedDuringRebuild) {
+            lock.writeLock().lock();
+            try {
+                tries = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding = false;
+            changedDuringRebuild.forEach((type, ids) -> {
+                changed.put(type, new HashSet<>(ids));
+                ids.clear();
+            });
+        }
+        apply(SuggestionDTO.Type.STUDENT, changed.get(SuggestionDTO.Type.STUDENT));
+        apply(SuggestionDTO.Type.COURSE, changed.get(SuggestionDTO.Type.COURSE));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        changed(SuggestionDTO.Type.STUDENT, event.studentIds());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        changed(SuggestionDTO.Type.COURSE, List.of(event.courseId()));
+    }
+    
+    private void changed(SuggestionDTO.Type type, Collection<Long> ids) {
+        synchronized (changedDuringRebuild) {
+            if (rebuilding) {
+                changedDuringRebuild.get(type).addAll(ids);
+            }
+        }
+        apply(type, ids);
+    }
+    
+    /**
+     * Re-reads the rows and replaces their entries; ids that no longer exist are dropped.
+     * Serialized, so two changes to one row are always applied in order.
+     */
+    private synchronized void apply(SuggestionDTO.Type type, Collection<Long> changedIds) {
+        String sql = type == SuggestionDTO.Type.STUDENT ? STUDENTS_SQL : COURSES_SQL;
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(changedIds));
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + LOAD_CHUNK_SIZE));
+            List<Entry> entries = jdbcTemplate.query(sql + " WHERE id IN (:ids)", Map.of("ids", chunk),
+                    (rs, rowNum) -> type == SuggestionDTO.Type.STUDENT ? student(rs) : course(rs));
+            
+            lock.writeLock().lock();
+            try {
+                PrefixTrie trie = tries.get(type);
+                chunk.forEach(trie::remove);
+                entries.forEach(trie::put);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    private static Entry student(ResultSet rs) throws SQLException {
+        String firstName = rs.getString("first_name");
+        String lastName = rs.getString("last_name");
+        String studentId = rs.getString("student_id");
+        SuggestionDTO suggestion = new SuggestionDTO(SuggestionDTO.Type.STUDENT, rs.getLong("id"),
+                firstName + " " + lastName, studentId);
+        return new Entry(suggestion, keys(firstName + " " + lastName, lastName + " " + firstName, studentId));
+    }
+    
+    private static Entry course(ResultSet rs) throws SQLException {
+        String code = rs.getString("code");
+        String title = rs.getString("title");
+        return new Entry(new SuggestionDTO(SuggestionDTO.Type.COURSE, rs.getLong("id"), code, title), keys(code, title));
+    }
+    
+    private static List<String> keys(String... texts) {
+        return Arrays.stream(texts).map(SuggestionIndex::normalize).filter(key -> !key.isEmpty()).distinct().toList();
+    }
+    
+    /**
+     * Lower-cased, trimmed, with runs of whitespace collapsed to one space.
+     */
+    static String normalize(String text) {
+        return text == null ? "" : WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+    
+    private static Map<SuggestionDTO.Type, PrefixTrie> emptyTries() {
+        Map<SuggestionDTO.Type, PrefixTrie> empty = new EnumMap<>(SuggestionDTO.Type.class);
+        for (SuggestionDTO.Type type : SuggestionDTO.Type.values()) {
+            empty.put(type, new PrefixTrie());
+        }
+        return empty;
+    }
+    
+    private record Entry(SuggestionDTO suggestion, List<String> keys) {
+    }
+    
+    private record Completion(String key, SuggestionDTO suggestion) {
+    }
+    
+    /**
+     * Character trie whose children are kept in sorted arrays, so a depth-first walk visits keys in
+     * order. Not thread-safe; guarded by the outer read-write lock.
+     */
+    private static final class PrefixTrie {
+        private final Node root = new Node();
+        private final Map<Long, Entry> entriesById = new HashMap<>();
+        
+        private int size() {
+            return entriesById.size();
+        }
+        
+        private void put(Entry entry) {
+            remove(entry.suggestion().getId());
+            entriesById.put(entry.suggestion().getId(), entry);
+            for (String key : entry.keys()) {
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.childOrCreate(key.charAt(i));
+                }
+                node.add(entry);
+            }
+        }
+        
+        private void remove(Long id) {
+            Entry entry = entriesById.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (String key : entry.keys()) {
+                Node node = root;
+                for (int i = 0; i < key.length() && node != null; i++) {
+                    node = node.child(key.charAt(i));
+                }
+                if (node != null) {
+                    node.remove(entry);
+                }
+            }
+        }
+        
+        /**
+         * Appends up to {@code limit} distinct entries whose keys start with {@code prefix}, each
+         * with the first such key in order.
+         */
+        private void complete(String prefix, int limit, List<Completion> out) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            if (node != null) {
+                collect(node, new StringBuilder(prefix), limit, new HashSet<>(), out);
+            }
+        }
+        
+        /**
+         * Returns the number of entries still wanted.
+         */
+        private int collect(Node node, StringBuilder key, int wanted, Set<Long> seen, List<Completion> out) {
+            for (int i = 0; i < node.entryCount && wanted > 0; i++) {
+                SuggestionDTO suggestion = node.entries[i].suggestion();
+                if (seen.add(suggestion.getId())) {
+                    out.add(new Completion(key.toString(), suggestion));
+                    wanted--;
+                }
+            }
+            for (int i = 0; i < node.childCount && wanted > 0; i++) {
+                key.append(node.labels[i]);
+                wanted = collect(node.children[i], key, wanted, seen, out);
+                key.setLength(key.length() - 1);
+            }
+            return wanted;
+        }
+    }
+    
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+        
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        /** Entries with a key ending at this node. */
+        private Entry[] entries = NO_ENTRIES;
+        private int entryCount;
+        
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            return index >= 0 ? children[index] : null;
+        }
+        
+        private Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, insertAt, labels, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            labels[insertAt] = label;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+        
+        private void add(Entry entry) {
+            if (entryCount == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(1, entryCount * 2));
+            }
+            entries[entryCount++] = entry;
+        }
+        
+        private void remove(Entry entry) {
+            for (int i = 0; i < entryCount; i++) {
+                if (entries[i] == entry) {
+                    System.arraycopy(entries, i + 1, entries, i, entryCount - i - 1);
+                    entries[--entryCount] = null;
+                    return;
+                }
+            }
+        }
+    }
+}
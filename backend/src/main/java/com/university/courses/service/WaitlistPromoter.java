@@ -0,0 +1,113 @@
+package com.university.courses.service;
+
+import com.university.courses.entity.Registration.RegistrationStatus;
+import com.university.courses.event.CourseSeatsChangedEvent;
+import com.university.courses.exception.ResourceNotFoundException;
+import com.university.courses.repository.RegistrationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves waitlisted students into freed seats in the background. Seat changes only mark their course
+ * as dirty, so a burst of drops on one course collapses into a single pass. Each pass reserves the
+ * free seats in one step and promotes the longest-waiting students with one conditional UPDATE,
+ * which makes repeated or overlapping passes harmless.
+ */
+@Service
+@Slf4j
+public class WaitlistPromoter {
+    
+    private final RegistrationRepository registrationRepository;
+    private final SeatLedger seatLedger;
+    private final EnrollmentCountService enrollmentCountService;
+    private final ResourceVersions resourceVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Set<Long> dirtyCourses = ConcurrentHashMap.newKeySet();
+    
+    public WaitlistPromoter(
+            RegistrationRepository registrationRepository,
+            SeatLedger seatLedger,
+            EnrollmentCountService enrollmentCountService,
+            ResourceVersions resourceVersions,
+            TransactionTemplate transactionTemplate,
+            @Value("${registration.waitlist.batch-size:50}") int batchSize
+    ) {
+        this.registrationRepository = registrationRepository;
+        this.seatLedger = seatLedger;
+        this.enrollmentCountService = enrollmentCountService;
+        this.resourceVersions = resourceVersions;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(CourseSeatsChangedEvent event) {
+        dirtyCourses.add(event.courseId());
+    }
+    
+    /**
+     * Picks up waitlists left behind by a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markWaitlistedCourses() {
+        dirtyCourses.addAll(registrationRepository.findCourseIdsByStatus(RegistrationStatus.WAITLISTED));
+    }
+    
+    @Scheduled(fixedDelayString = "${registration.waitlist.promotion-interval:500}")
+    public void promoteWaitlisted() {
+        if (dirtyCourses.isEmpty()) {
+            return;
+        }
+        for (Long courseId : new ArrayList<>(dirtyCourses)) {
+            dirtyCourses.remove(courseId);
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> promote(courseId)))) {
+                    dirtyCourses.add(courseId);
+                }
+            } catch (ResourceNotFoundException e) {
+                log.debug("Skipping waitlist promotion for deleted course: {}", courseId);
+            } catch (RuntimeException e) {
+                log.warn("Waitlist promotion failed for course {}: {}", courseId, e.getMessage());
+                dirtyCourses.add(courseId);
+            }
+        }
+    }
+    
+    /**
+     * Runs one promotion pass and returns whether the course needs another.
+     */
+    private boolean promote(Long courseId) {
+        int reserved = seatLedger.tryReserve(courseId, batchSize);
+        if (reserved == 0) {
+            return false;
+        }
+        
+        List<Long> nextInLine = registrationRepository.findIdsByCourseIdAndStatus(
+                courseId, RegistrationStatus.WAITLISTED, PageRequest.of(0, reserved));
+        int promoted = nextInLine.isEmpty() ? 0 : registrationRepository.updateStatus(
+                nextInLine, RegistrationStatus.WAITLISTED, RegistrationStatus.ENROLLED);
+        
+        // Hand back seats nobody was waiting for, or whose student left the waitlist meanwhile
+        seatLedger.cancelReservation(courseId, reserved - promoted);
+        if (promoted > 0) {
+            enrollmentCountService.adjustWaitlist(courseId, -promoted);
+            resourceVersions.studentsChanged(registrationRepository.findStudentIdsByIds(nextInLine));
+            log.info("Promoted {} waitlisted registrations for course: {}", promoted, courseId);
+        }
+        // A full batch may leave more students and seats; a skipped row may have had someone behind it
+        return promoted == batchSize || promoted < nextInLine.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.university.courses.web;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET helpers. The body supplier only runs when the client's {@code If-None-Match} does
+ * not match, so a 304 costs no queries or DTO conversion. Responses are marked {@code no-cache}
+ * (revalidate every time) rather than Spring Security's default {@code no-store}, which would stop
+ * browsers from keeping the copy they revalidate. A {@code null} tag sends the body without an ETag.
+ */
+public final class ConditionalResponses {
+    
+    private ConditionalResponses() {
+    }
+    
+    public static <T> ResponseEntity<T> ifNoneMatch(WebRequest request, String etag, Supplier<T> body) {
+        return ifNoneMatchEntity(request, etag, () -> ResponseEntity.ok(body.get()));
+    }
+    
+    /**
+     * For bodies that come with headers of their own, such as a next-page cursor.
+     */
+    public static <T> ResponseEntity<T> ifNoneMatchEntity(WebRequest request, String etag, Supplier<ResponseEntity<T>> response) {
+        if (etag == null) {
+            // No version stamp available right now; answer in full and let the client revalidate next time
+            ResponseEntity<T> entity = response.get();
+            return ResponseEntity.status(entity.getStatusCode())
+                    .headers(entity.getHeaders())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(entity.getBody());
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+        ResponseEntity<T> entity = response.get();
+        return ResponseEntity.status(entity.getStatusCode())
+                .headers(entity.getHeaders())
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(entity.getBody());
+    }
+}
@@ -0,0 +1,104 @@
+package com.university.courses.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opaque {@code after} cursors for keyset-paginated list endpoints. A cursor carries the sort it was
+ * issued for and the sort-key values (always including the id) of the last row of its page, so the
+ * next page is a plain {@code WHERE (key, id) > (...)} seek and costs the same at any depth. Values
+ * are converted back to the entity's property types on the way in, since JSON loses them.
+ */
+@Component
+public class CursorCodec {
+    
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private final ObjectMapper objectMapper;
+    
+    public CursorCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * The position to continue from; the first page when there is no cursor.
+     */
+    public ScrollPosition decode(String cursor, Class<?> entityType, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        
+        Cursor decoded;
+        try {
+            // Decimals as BigDecimal, so a DECIMAL sort key comes back exactly as it went out
+            decoded = objectMapper.readerFor(Cursor.class)
+                    .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .readValue(Base64.getUrlDecoder().decode(cursor));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (decoded.keys() == null || decoded.keys().isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!sort.toString().equals(decoded.sort())) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order, restart from the first page");
+        }
+        
+        Map<String, Object> keys = new LinkedHashMap<>();
+        decoded.keys().forEach((property, value) -> keys.put(property,
+                value != null ? objectMapper.convertValue(value, propertyType(entityType, property)) : null));
+        return ScrollPosition.forward(keys);
+    }
+    
+    /**
+     * The window's rows, with a cursor to the following page in {@value #NEXT_CURSOR_HEADER} unless this is the last one.
+     */
+    public <T> ResponseEntity<List<T>> ok(Window<T> window, Sort sort) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, encode(new Cursor(sort.toString(), last.getKeys())));
+        }
+        return response.body(window.getContent());
+    }
+    
+    private String encode(Cursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+    
+    /**
+     * Type of a possibly nested property such as {@code student.lastName}.
+     */
+    private static Class<?> propertyType(Class<?> type, String propertyPath) {
+        for (String property : propertyPath.split("\\.")) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+            if (descriptor == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            type = descriptor.getPropertyType();
+        }
+        return type;
+    }
+    
+    record Cursor(String sort, Map<String, Object> keys) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.university.courses.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.courses.exception.GlobalExceptionHandler.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Honours an {@code Idempotency-Key} header on the enrollment and result-posting endpoints. The first
+ * request with a key runs normally and its response is stored; retries with the same key (from the same
+ * user, to the same path, with the same body) get that response replayed without reaching the service layer.
+ * A retry that arrives while the original is still running gets 409; reusing a key for a different
+ * body gets 422. Server errors are not stored, so those requests can be retried. A handler that answers
+ * asynchronously (a held enrollment) has its response stored on the async dispatch that completes it.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String STORE_KEY_ATTRIBUTE = IdempotencyFilter.class.getName() + ".storeKey";
+    private static final String FINGERPRINT_ATTRIBUTE = IdempotencyFilter.class.getName() + ".fingerprint";
+    private static final List<String> IDEMPOTENT_PATHS = List.of(
+            "/api/registrations",
+            "/api/student/courses/*/enroll",
+            "/api/results"
+    );
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore store;
+    
+    public IdempotencyFilter(
+            ObjectMapper objectMapper,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl:86400000}") long ttlMillis
+    ) {
+        this.objectMapper = objectMapper;
+        this.store = new IdempotencyStore(maxEntries, ttlMillis);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return IDEMPOTENT_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        if (isAsyncDispatch(request)) {
+            String storeKey = (String) request.getAttribute(STORE_KEY_ATTRIBUTE);
+            ContentCachingResponseWrapper cachingResponse = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (storeKey == null || cachingResponse == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            execute(request, cachingResponse, filterChain, storeKey, (String) request.getAttribute(FINGERPRINT_ATTRIBUTE));
+            return;
+        }
+        
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String principal = authentication != null ? authentication.getName() : "anonymous";
+        String storeKey = principal + ":" + request.getRequestURI() + ":" + idempotencyKey;
+        
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedRequest.body);
+        
+        IdempotencyStore.Entry existing = store.claim(storeKey, fingerprint);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used with a different request body");
+            } else if (existing.inFlight()) {
+                writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+            } else {
+                log.debug("Replaying stored response for idempotency key: {}", idempotencyKey);
+                replay(response, existing.response());
+            }
+            return;
+        }
+        
+        execute(cachedRequest, new ContentCachingResponseWrapper(response), filterChain, storeKey, fingerprint);
+    }
+    
+    /**
+     * Runs the request and stores its response, unless the handler went asynchronous; then the entry
+     * stays in flight until the async dispatch finishes it.
+     */
+    private void execute(
+            HttpServletRequest request,
+            ContentCachingResponseWrapper cachingResponse,
+            FilterChain filterChain,
+            String storeKey,
+            String fingerprint
+    ) throws ServletException, IOException {
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, cachingResponse);
+            if (isAsyncStarted(request)) {
+                request.setAttribute(STORE_KEY_ATTRIBUTE, storeKey);
+                request.setAttribute(FINGERPRINT_ATTRIBUTE, fingerprint);
+                return;
+            }
+            int status = cachingResponse.getStatus();
+            if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                store.complete(storeKey, fingerprint, new IdempotencyStore.StoredResponse(
+                        status, cachingResponse.getContentType(), cachingResponse.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!isAsyncStarted(request)) {
+                if (!stored) {
+                    store.release(storeKey);
+                }
+                cachingResponse.copyBodyToResponse();
+            }
+        }
+    }
+    
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+    
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(), message, LocalDateTime.now()));
+    }
+    
+    private static String fingerprint(byte[] body) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Reads the (small, JSON) request body up front so it can be fingerprinted and still be read by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    Objects.requireNonNull(readListener, "readListener");
+                    // The whole body is already in memory, so it is available at once and never blocks
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
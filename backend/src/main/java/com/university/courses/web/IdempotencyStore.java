@@ -0,0 +1,59 @@
+package com.university.courses.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, expiring record of requests seen per idempotency key. A key is first claimed as in-flight
+ * and later completed with the response to replay. When full, the least recently used key is dropped.
+ */
+public class IdempotencyStore {
+    
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    
+    public IdempotencyStore(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyStore.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Returns the existing entry for the key, or claims the key for a new in-flight request and returns null.
+     */
+    public synchronized Entry claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        Entry existing = entries.get(key);
+        if (existing != null && existing.expiresAt() > now) {
+            return existing;
+        }
+        entries.put(key, new Entry(fingerprint, null, now + ttlMillis));
+        return null;
+    }
+    
+    public synchronized void complete(String key, String fingerprint, StoredResponse response) {
+        entries.put(key, new Entry(fingerprint, response, System.currentTimeMillis() + ttlMillis));
+    }
+    
+    /**
+     * Forgets an in-flight claim so the client can retry, e.g. after a server error.
+     */
+    public synchronized void release(String key) {
+        entries.remove(key);
+    }
+    
+    public record Entry(String fingerprint, StoredResponse response, long expiresAt) {
+        public boolean inFlight() {
+            return response == null;
+        }
+    }
+    
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+}
@@ -0,0 +1,12 @@
+-- Runs before data.sql on every start, after Hibernate has updated the schema.
+
+-- registrations.status was created as a native ENUM, which ddl-auto=update cannot extend with
+-- WAITLISTED. Convert it to the VARCHAR(20) the entity declares, once; later starts skip the ALTER.
+SET @registration_status_upgrade = COALESCE((
+    SELECT 'ALTER TABLE registrations MODIFY COLUMN status VARCHAR(20) NOT NULL'
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'registrations' AND COLUMN_NAME = 'status' AND DATA_TYPE = 'enum'
+), 'DO 0');
+PREPARE registration_status_upgrade FROM @registration_status_upgrade;
+EXECUTE registration_status_upgrade;
+DEALLOCATE PREPARE registration_status_upgrade;
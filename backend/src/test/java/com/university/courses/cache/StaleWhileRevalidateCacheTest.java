@@ -0,0 +1,135 @@
+package com.university.courses.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaleWhileRevalidateCacheTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void servesStaleValueWhileRefreshingAndKeepsItWhenRefreshFails() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        AtomicBoolean databaseDown = new AtomicBoolean();
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        Semaphore refreshesDone = new Semaphore(0);
+        Executor refresher = task -> Thread.ofVirtual().start(() -> {
+            try {
+                task.run();
+            } finally {
+                refreshesDone.release();
+            }
+        });
+        StaleWhileRevalidateCache<String, Integer> cache = new StaleWhileRevalidateCache<>("test", 10, 0, key -> {
+            if (loads.get() == 1 && refreshStarted.getCount() > 0) {
+                refreshStarted.countDown();
+                await(releaseRefresh);
+            }
+            if (databaseDown.get()) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return loads.incrementAndGet();
+        }, meterRegistry, refresher);
+        
+        assertEquals(1, cache.get("a"));
+        // Every entry is expired with a zero ttl; the read returns at once while the refresh is held
+        assertEquals(1, cache.get("a"));
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, cache.get("a"));
+        databaseDown.set(true);
+        releaseRefresh.countDown();
+        awaitRefresh(refreshesDone);
+        
+        // The failed refresh kept the last good value
+        assertEquals(1, cache.get("a"));
+        awaitRefresh(refreshesDone);
+        assertEquals(2.0, meterRegistry.get("cache.load.failures").counter().count());
+        
+        databaseDown.set(false);
+        assertEquals(1, cache.get("a"));
+        awaitRefresh(refreshesDone);
+        assertEquals(2, cache.get("a"));
+        assertThrows(IllegalStateException.class, () -> {
+            databaseDown.set(true);
+            cache.get("missing");
+        });
+    }
+    
+    @Test
+    void loadOverlappingInvalidationIsNeitherStoredNorShared() throws Exception {
+        AtomicInteger version = new AtomicInteger();
+        CountDownLatch firstLoadStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstLoad = new CountDownLatch(1);
+        StaleWhileRevalidateCache<String, Integer> cache = new StaleWhileRevalidateCache<>("test", 10, 60_000, key -> {
+            int loaded = version.incrementAndGet();
+            if (loaded == 1) {
+                firstLoadStarted.countDown();
+                await(releaseFirstLoad);
+            }
+            return loaded;
+        }, meterRegistry);
+        
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> cache.get("a"));
+        assertTrue(firstLoadStarted.await(5, TimeUnit.SECONDS));
+        cache.invalidate("a");
+        
+        // The first load read data from before the invalidation, so a new miss must load on its own
+        assertEquals(2, assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.get("a")));
+        
+        releaseFirstLoad.countDown();
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, cache.get("a"));
+        assertEquals(2, version.get());
+    }
+    
+    @Test
+    void evictsLeastRecentlyUsedAndDropsLoadsOverlappingInvalidation() {
+        AtomicInteger loads = new AtomicInteger();
+        StaleWhileRevalidateCache<Integer, Integer> cache =
+                new StaleWhileRevalidateCache<>("test", 2, 60_000, key -> loads.incrementAndGet(), meterRegistry);
+        
+        cache.get(1);
+        cache.get(2);
+        cache.get(1);
+        cache.get(3);
+        assertEquals(2, cache.size());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count());
+        
+        int before = loads.get();
+        cache.get(1);
+        assertEquals(before, loads.get(), "key 1 was recently used and should have survived eviction");
+        
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        cache.get(1);
+        assertEquals(before + 1, loads.get());
+    }
+    
+    private static void awaitRefresh(Semaphore refreshesDone) throws InterruptedException {
+        assertTrue(refreshesDone.tryAcquire(5, TimeUnit.SECONDS), "refresh did not finish");
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.university.courses.repository;
+
+import com.university.courses.dto.CourseDTO;
+import com.university.courses.entity.Course;
+import com.university.courses.entity.Registration;
+import com.university.courses.entity.Registration.RegistrationStatus;
+import com.university.courses.entity.Student;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AvailableCoursesQueryTest {
+    
+    private static final List<RegistrationStatus> ACTIVE = List.of(RegistrationStatus.ENROLLED, RegistrationStatus.WAITLISTED);
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Test
+    void excludesActiveRegistrationsAndFilters() {
+        Student student = persistStudent();
+        List<Course> courses = persistCourses(6);
+        register(student, courses.get(0), RegistrationStatus.ENROLLED);
+        register(student, courses.get(1), RegistrationStatus.WAITLISTED);
+        register(student, courses.get(2), RegistrationStatus.DROPPED);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<CourseDTO> page = courseRepository.findAvailableForStudent(
+                student.getId(), ACTIVE, null, null, null, null, PageRequest.of(0, 10, Sort.by("title")));
+        
+        assertEquals(4, page.size());
+        assertTrue(page.stream().noneMatch(course ->
+                course.getId().equals(courses.get(0).getId()) || course.getId().equals(courses.get(1).getId())));
+        
+        List<CourseDTO> filtered = courseRepository.findAvailableForStudent(
+                student.getId(), ACTIVE, "course 5", null, null, null, PageRequest.of(0, 10));
+        assertEquals(1, filtered.size());
+        assertEquals(0, filtered.get(0).getCurrentEnrollment());
+    }
+    
+    @Test
+    void statementCountDoesNotGrowWithCatalogSize() {
+        assertEquals(statementsForCatalogOf(20), statementsForCatalogOf(400));
+        assertEquals(1, statementsForCatalogOf(50), "expected the page query alone, with no count query");
+    }
+    
+    private long statementsForCatalogOf(int size) {
+        entityManager.getEntityManager().createQuery("DELETE FROM Registration").executeUpdate();
+        entityManager.getEntityManager().createQuery("DELETE FROM Course").executeUpdate();
+        Student student = persistStudent();
+        List<Course> courses = persistCourses(size);
+        for (int i = 0; i < size; i += 3) {
+            register(student, courses.get(i), RegistrationStatus.ENROLLED);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<CourseDTO> page = courseRepository.findAvailableForStudent(
+                student.getId(), ACTIVE, null, null, null, null, PageRequest.of(1, 5, Sort.by("title")));
+        assertEquals(5, page.size());
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private Student persistStudent() {
+        Student student = new Student();
+        String suffix = String.valueOf(System.nanoTime() % 1_000_000_000L);
+        student.setStudentId("S" + suffix);
+        student.setFirstName("Test");
+        student.setLastName("Student");
+        student.setEmail("student" + suffix + "@example.com");
+        student.setDepartment("Computer Science");
+        return entityManager.persist(student);
+    }
+    
+    private List<Course> persistCourses(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Course course = new Course();
+            course.setCode("C" + i);
+            course.setTitle("Course " + i);
+            course.setCredits(3);
+            course.setDepartment("Computer Science");
+            course.setMaxEnrollment(30);
+            return entityManager.persist(course);
+        }).toList();
+    }
+    
+    private void register(Student student, Course course, RegistrationStatus status) {
+        Registration registration = new Registration();
+        registration.setStudent(student);
+        registration.setCourse(course);
+        registration.setStatus(status);
+        entityManager.persist(registration);
+    }
+}
@@ -0,0 +1,101 @@
+package com.university.courses.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original three-parse token validation path against the single-parse
+ * verification path, with and without the verified-token cache.
+ *
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.university.courses.security.JwtVerificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    
+    private JwtService uncachedService;
+    private JwtService cachedService;
+    private UserDetails userDetails;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        uncachedService = newJwtService(0);
+        cachedService = newJwtService(10_000);
+        userDetails = User.withUsername("bench.user").password("unused").roles("STUDENT").build();
+        token = cachedService.generateToken(userDetails);
+    }
+    
+    @Benchmark
+    public boolean originalThreeParsePath() {
+        String username = legacyClaims(token).getSubject();
+        boolean expired = legacyClaims(token).getExpiration().before(new Date());
+        return legacyClaims(token).getSubject().equals(username) && !expired;
+    }
+    
+    @Benchmark
+    public boolean singleParse() {
+        return uncachedService.isTokenValid(token, userDetails);
+    }
+    
+    @Benchmark
+    public boolean singleParseWithVerifiedCache() {
+        return cachedService.isTokenValid(token, userDetails);
+    }
+    
+    /**
+     * Mirrors the pre-cache {@code extractAllClaims}: decodes the key and builds a parser on every call.
+     */
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+    
+    private static JwtService newJwtService(int cacheSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(service, "verifiedCacheMaxSize", cacheSize);
+        service.init();
+        return service;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
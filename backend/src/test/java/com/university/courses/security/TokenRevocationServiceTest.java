@@ -0,0 +1,57 @@
+package com.university.courses.security;
+
+import com.university.courses.entity.RevokedToken;
+import com.university.courses.entity.RevokedToken.RevocationType;
+import com.university.courses.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(TokenRevocationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationServiceTest {
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @AfterEach
+    void cleanUp() {
+        revokedTokenRepository.deleteAll();
+    }
+    
+    @Test
+    void onlyTheFirstRevocationOnAnyInstanceWins() {
+        tokenRevocationService.rebuild();
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+        
+        assertTrue(tokenRevocationService.revokeToken("jti-1", expiresAt));
+        assertFalse(tokenRevocationService.revokeToken("jti-1", expiresAt));
+        
+        // Revoked through another instance, not synced here yet
+        RevokedToken elsewhere = new RevokedToken(null, RevocationType.TOKEN, "jti-2", LocalDateTime.now(),
+                LocalDateTime.now().plusMinutes(1));
+        revokedTokenRepository.save(elsewhere);
+        assertFalse(tokenRevocationService.revokeToken("jti-2", expiresAt));
+        assertTrue(tokenRevocationService.revokeToken("jti-3", expiresAt));
+        assertEquals(3, revokedTokenRepository.count());
+        
+        tokenRevocationService.revokeAllForUser("ada");
+        tokenRevocationService.revokeAllForUser("ada");
+        assertEquals(4, revokedTokenRepository.count());
+    }
+}
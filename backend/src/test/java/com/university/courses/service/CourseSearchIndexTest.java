@@ -0,0 +1,70 @@
+package com.university.courses.service;
+
+import com.university.courses.dto.CourseDTO;
+import com.university.courses.event.CourseCatalogChangedEvent;
+import com.university.courses.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseSearchIndexTest {
+    
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+    
+    private CourseRepository courseRepository;
+    private CourseSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        courseRepository = mock(CourseRepository.class);
+        when(courseRepository.findCourseDTOs(Pageable.unpaged())).thenReturn(List.of(
+                course(1L, "CS101", "Introduction to Programming", "Variables, loops and functions", 3, "Computer Science"),
+                course(2L, "CS201", "Data Structures", "Lists, trees and an introduction to graphs", 4, "Computer Science"),
+                course(3L, "MATH150", "Calculus I", "Limits and derivatives for programmers and others", 4, "Mathematics"),
+                course(4L, "HIST110", "World History", "From antiquity to the present", 3, "History")
+        ));
+        index = new CourseSearchIndex(courseRepository);
+        index.rebuild();
+    }
+    
+    @Test
+    void ranksCodeAndTitleMatchesAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 3L), index.search("program", null, null, null, FIRST_PAGE));
+        assertEquals(List.of(1L, 2L), index.search("intro", null, null, null, FIRST_PAGE));
+        assertEquals(List.of(2L), index.search("cs201", null, null, null, FIRST_PAGE));
+        assertEquals(List.of(2L, 1L), index.search("cs", null, null, null, FIRST_PAGE));
+        assertEquals(List.of(1L), index.search("intro prog", null, null, null, FIRST_PAGE));
+        assertEquals(List.of(), index.search("quantum", null, null, null, FIRST_PAGE));
+    }
+    
+    @Test
+    void appliesFiltersAndPagesInTitleOrderWithoutQuery() {
+        assertEquals(List.of(3L, 2L), index.search(null, null, 4, null, FIRST_PAGE));
+        assertEquals(List.of(3L), index.search("program", "mathematics", null, null, FIRST_PAGE));
+        assertEquals(List.of(1L, 4L), index.search("", null, null, null, PageRequest.of(1, 2)));
+    }
+    
+    @Test
+    void followsCourseEdits() {
+        when(courseRepository.findCourseDTOById(4L)).thenReturn(Optional.of(
+                course(4L, "HIST110", "History of Computing", "From the abacus to the internet", 3, "History")));
+        index.onCatalogChanged(new CourseCatalogChangedEvent(4L));
+        assertEquals(List.of(4L), index.search("computing", null, null, null, FIRST_PAGE));
+        
+        when(courseRepository.findCourseDTOById(1L)).thenReturn(Optional.empty());
+        index.onCatalogChanged(new CourseCatalogChangedEvent(1L));
+        assertEquals(List.of(2L), index.search("intro", null, null, null, FIRST_PAGE));
+    }
+    
+    private static CourseDTO course(Long id, String code, String title, String description, int credits, String department) {
+        return new CourseDTO(id, code, title, description, credits, department, 30, 0, 0, null, null);
+    }
+}
@@ -0,0 +1,160 @@
+package com.university.courses.service;
+
+import com.university.courses.entity.Course;
+import com.university.courses.entity.Registration.RegistrationStatus;
+import com.university.courses.entity.Student;
+import com.university.courses.repository.CourseRepository;
+import com.university.courses.repository.RegistrationRepository;
+import com.university.courses.repository.StudentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hundreds of students register for one course at the same moment, each on its own thread and in its
+ * own committed transaction against H2. The course row must end up with exactly its capacity enrolled
+ * and everyone else waitlisted, and the registration rows must agree with it.
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RegistrationService.class, SeatLedger.class, EnrollmentCountService.class,
+        RegistrationCapacityStressTest.Metrics.class})
+class RegistrationCapacityStressTest {
+    
+    private static final int CAPACITY = 50;
+    /** One thread per student, all released at once, so every request contends for the same row. */
+    private static final int STUDENTS = 400;
+    
+    @Autowired
+    private RegistrationService registrationService;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private RegistrationRepository registrationRepository;
+    
+    @MockitoBean
+    private StudentService studentService;
+    
+    @MockitoBean
+    private ResourceVersions resourceVersions;
+    
+    @AfterEach
+    void cleanUp() {
+        registrationRepository.deleteAll();
+        studentRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+    
+    @Test
+    void concurrentRegistrationsNeverExceedMaxEnrollment() throws Exception {
+        Course course = courseRepository.save(course());
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds.add(studentRepository.save(student(i)).getId());
+        }
+        when(studentService.getStudentById(anyLong()))
+                .thenAnswer(invocation -> studentRepository.getReferenceById(invocation.getArgument(0)));
+        
+        ExecutorService executor = Executors.newFixedThreadPool(STUDENTS);
+        CountDownLatch ready = new CountDownLatch(STUDENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long studentId : studentIds) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return registrationService.createRegistration(studentId, course.getId(), null);
+                }));
+            }
+            assertTrue(ready.await(30, TimeUnit.SECONDS));
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        Course reloaded = courseRepository.findById(course.getId()).orElseThrow();
+        assertEquals(CAPACITY, registrationRepository.countByCourseIdAndStatus(course.getId(), RegistrationStatus.ENROLLED));
+        assertEquals(STUDENTS - CAPACITY, registrationRepository.countByCourseIdAndStatus(course.getId(), RegistrationStatus.WAITLISTED));
+        assertEquals(CAPACITY, reloaded.getEnrolledCount());
+        assertEquals(STUDENTS - CAPACITY, reloaded.getWaitlistCount());
+    }
+    
+    @Test
+    void onlyTheUniqueConstraintReadsAsAlreadyRegistered() {
+        Course course = courseRepository.save(course());
+        Long studentId = studentRepository.save(student(0)).getId();
+        when(studentService.getStudentById(anyLong()))
+                .thenAnswer(invocation -> studentRepository.getReferenceById(invocation.getArgument(0)));
+        
+        registrationService.createRegistration(studentId, course.getId(), null);
+        IllegalArgumentException duplicate = assertThrows(IllegalArgumentException.class,
+                () -> registrationService.createRegistration(studentId, course.getId(), null));
+        assertEquals("Student is already registered for this course", duplicate.getMessage());
+        
+        // A missing student breaks the foreign key, which is not a duplicate
+        assertThrows(DataIntegrityViolationException.class,
+                () -> registrationService.createRegistration(studentId + 1000, course.getId(), null));
+        assertEquals(1, courseRepository.findById(course.getId()).orElseThrow().getEnrolledCount());
+    }
+    
+    private static Course course() {
+        Course course = new Course();
+        course.setCode("CS101");
+        course.setTitle("Programming");
+        course.setCredits(3);
+        course.setDepartment("Computer Science");
+        course.setMaxEnrollment(CAPACITY);
+        return course;
+    }
+    
+    private static Student student(int i) {
+        Student student = new Student();
+        student.setStudentId("S" + (1000 + i));
+        student.setFirstName("Student");
+        student.setLastName("Number" + i);
+        student.setEmail("student" + i + "@example.com");
+        student.setDepartment("Computer Science");
+        return student;
+    }
+    
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
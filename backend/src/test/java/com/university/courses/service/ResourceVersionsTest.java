@@ -0,0 +1,126 @@
+package com.university.courses.service;
+
+import com.university.courses.entity.Course;
+import com.university.courses.entity.Student;
+import com.university.courses.event.CatalogStampChangedEvent;
+import com.university.courses.repository.CatalogVersionRepository;
+import com.university.courses.repository.CourseRepository;
+import com.university.courses.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Every write commits on its own, as in production, so the after-commit bookkeeping runs.
+ */
+@DataJpaTest(properties = {"spring.sql.init.mode=never", "catalog.version.refresh-interval=3600000"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ResourceVersions.class, SeatLedger.class})
+@RecordApplicationEvents
+class ResourceVersionsTest {
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    @Autowired
+    private SeatLedger seatLedger;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEvents events;
+    
+    @AfterEach
+    void cleanUp() {
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+        catalogVersionRepository.deleteAll();
+    }
+    
+    @Test
+    void tagsFollowTheCatalogVersionAndOnlyForeignWritesClearCaches() {
+        Course course = courseRepository.save(course("CS101"));
+        Long studentId = studentRepository.save(student()).getId();
+        resourceVersions.refresh();
+        String catalog = resourceVersions.catalogTag();
+        String records = resourceVersions.studentRecordsTag(studentId);
+        String courses = resourceVersions.studentCoursesTag(studentId);
+        assertNotNull(catalog);
+        resourceVersions.refresh();
+        assertEquals(catalog, resourceVersions.catalogTag());
+        
+        // Seat counts show in course listings, not in a student's records; they are published on refresh
+        seatLedger.tryReserve(course.getId());
+        seatLedger.tryReserve(course.getId());
+        assertEquals(catalog, resourceVersions.catalogTag());
+        resourceVersions.refresh();
+        assertNotEquals(catalog, resourceVersions.catalogTag());
+        assertEquals(records, resourceVersions.studentRecordsTag(studentId));
+        assertNotEquals(courses, resourceVersions.studentCoursesTag(studentId));
+        
+        resourceVersions.studentChanged(studentId);
+        assertNotEquals(records, resourceVersions.studentRecordsTag(studentId));
+        
+        // A course edit shows at once
+        records = resourceVersions.studentRecordsTag(studentId);
+        resourceVersions.courseChanged(course.getId());
+        assertNotEquals(records, resourceVersions.studentRecordsTag(studentId));
+        assertEquals(List.of(), recordedStampChanges());
+        
+        // Writes through another instance
+        catalog = resourceVersions.catalogTag();
+        transactionTemplate.executeWithoutResult(status -> catalogVersionRepository.bumpCounts());
+        resourceVersions.refresh();
+        assertNotEquals(catalog, resourceVersions.catalogTag());
+        transactionTemplate.executeWithoutResult(status -> catalogVersionRepository.bumpDefinitions());
+        resourceVersions.refresh();
+        assertEquals(List.of(false, true), recordedStampChanges());
+    }
+    
+    private List<Boolean> recordedStampChanges() {
+        return events.stream(CatalogStampChangedEvent.class).map(CatalogStampChangedEvent::definitionsChanged).toList();
+    }
+    
+    private static Course course(String code) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setTitle("Programming");
+        course.setCredits(3);
+        course.setDepartment("Computer Science");
+        course.setMaxEnrollment(10);
+        return course;
+    }
+    
+    private static Student student() {
+        Student student = new Student();
+        student.setStudentId("S1001");
+        student.setFirstName("Ada");
+        student.setLastName("Lovelace");
+        student.setEmail("ada@example.com");
+        student.setDepartment("Computer Science");
+        return student;
+    }
+}
@@ -0,0 +1,97 @@
+package com.university.courses.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.courses.bulk.RecordFormat;
+import com.university.courses.dto.StudentImportReport;
+import com.university.courses.repository.StudentRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the upsert against H2 in MySQL mode, each chunk committing on its own as in production.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:student-import;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "students.import.batch-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StudentImportService.class, ResourceVersions.class, StudentImportServiceTest.Beans.class})
+class StudentImportServiceTest {
+    
+    private static final String FILE = """
+            studentId,firstName,lastName,email,department,enrollmentYear
+            S1001,Ada,Lovelace,ada@example.com,Mathematics,2023
+            S1002,Alan,Turing,alan@example.com,Computer Science,2022
+            S1003,Grace,Hopper,grace@example.com,Computer Science,2024
+            S1004,Edsger,Dijkstra,edsger@example.com,Computer Science,
+            S1001,Ada,King,ada@example.com,Mathematics,2023
+            S1005,Barbara,Liskov,alan@example.com,Computer Science,2021
+            """;
+    
+    @Autowired
+    private StudentImportService studentImportService;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @AfterEach
+    void cleanUp() {
+        studentRepository.deleteAll();
+    }
+    
+    @Test
+    void importingTheSameFileTwiceCreatesThenUpdates() throws Exception {
+        StudentImportReport first = importFile();
+        assertEquals(6, first.getTotalRows());
+        assertEquals(4, first.getCreated());
+        // A student ID repeated later in the file is an update; an email taken by another student is rejected
+        assertEquals(1, first.getUpdated());
+        assertEquals(1, first.getFailed());
+        assertEquals(7, first.getErrors().get(0).getLine());
+        assertEquals(4, studentRepository.count());
+        
+        StudentImportReport second = importFile();
+        assertEquals(0, second.getCreated());
+        assertEquals(5, second.getUpdated());
+        assertEquals(1, second.getFailed());
+        assertEquals(4, studentRepository.count());
+    }
+    
+    private StudentImportReport importFile() throws Exception {
+        return studentImportService.importStudents(
+                new ByteArrayInputStream(FILE.getBytes(StandardCharsets.UTF_8)), RecordFormat.CSV);
+    }
+    
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+        
+        @Bean
+        Validator validator() {
+            return Validation.buildDefaultValidatorFactory().getValidator();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.university.courses.service;
+
+import com.university.courses.entity.Student;
+import com.university.courses.event.StudentsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(StudentSearchIndex.class)
+class StudentSearchIndexTest {
+    
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private StudentSearchIndex index;
+    
+    @Test
+    void matchesNameStudentIdAndEmailSubstringsInNameOrder() {
+        Student ada = persist("S1001", "Ada", "Lovelace", "ada@example.com", "Mathematics", 2023);
+        Student alan = persist("S1002", "Alan", "Turing", "alan.t@example.com", "Computer Science", 2024);
+        Student grace = persist("S2001", "Grace", "Hopper", "ghopper@example.com", "Computer Science", 2024);
+        index.rebuild();
+        
+        assertEquals(List.of(alan.getId()), index.search("Turing", null, null, FIRST_PAGE).studentIds());
+        assertEquals(List.of(ada.getId(), alan.getId()), index.search("s100", null, null, FIRST_PAGE).studentIds());
+        assertEquals(List.of(grace.getId()), index.search("hopper@", null, null, FIRST_PAGE).studentIds());
+        assertEquals(List.of(alan.getId(), grace.getId()),
+                index.search("a", "computer science", 2024, FIRST_PAGE).studentIds());
+        // One and two character queries read their own posting lists
+        assertEquals(List.of(ada.getId()), index.search("ov", null, null, FIRST_PAGE).studentIds());
+        assertEquals(List.of(alan.getId(), grace.getId()), index.search("g", null, null, FIRST_PAGE).studentIds());
+        assertEquals(0, index.search("q", null, null, FIRST_PAGE).total());
+        
+        StudentSearchIndex.Result secondPage = index.search("example", null, null, PageRequest.of(1, 2));
+        assertEquals(List.of(grace.getId()), secondPage.studentIds());
+        assertEquals(3, secondPage.total());
+    }
+    
+    @Test
+    void followsEditsAndDeletes() {
+        Student ada = persist("S1001", "Ada", "Lovelace", "ada@example.com", "Mathematics", 2023);
+        Student grace = persist("S2001", "Grace", "Hopper", "ghopper@example.com", "Computer Science", 2024);
+        index.rebuild();
+        
+        grace.setLastName("Brewster");
+        entityManager.persistAndFlush(grace);
+        entityManager.remove(ada);
+        entityManager.flush();
+        index.onStudentsChanged(new StudentsChangedEvent(List.of(grace.getId(), ada.getId())));
+        
+        assertEquals(List.of(grace.getId()), index.search("brewster", null, null, FIRST_PAGE).studentIds());
+        assertEquals(0, index.search("grace hop", null, null, FIRST_PAGE).total());
+        assertEquals(0, index.search("lovelace", null, null, FIRST_PAGE).total());
+    }
+    
+    private Student persist(String studentId, String firstName, String lastName, String email, String department, int year) {
+        Student student = new Student();
+        student.setStudentId(studentId);
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setEmail(email);
+        student.setDepartment(department);
+        student.setEnrollmentYear(year);
+        return entityManager.persistAndFlush(student);
+    }
+}
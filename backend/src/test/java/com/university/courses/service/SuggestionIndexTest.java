@@ -0,0 +1,91 @@
+package com.university.courses.service;
+
+import com.university.courses.dto.SuggestionDTO;
+import com.university.courses.entity.Course;
+import com.university.courses.entity.Student;
+import com.university.courses.event.CourseCatalogChangedEvent;
+import com.university.courses.event.StudentsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(SuggestionIndex.class)
+class SuggestionIndexTest {
+    
+    private static final Set<SuggestionDTO.Type> ALL = EnumSet.allOf(SuggestionDTO.Type.class);
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private SuggestionIndex index;
+    
+    @Test
+    void completesNamesStudentIdsCodesAndTitlesInKeyOrder() {
+        Student ada = persistStudent("S1001", "Ada", "Lovelace", "ada@example.com");
+        Student alan = persistStudent("S1002", "Alan", "Turing", "alan@example.com");
+        Course algorithms = persistCourse("CS201", "Algorithms");
+        Course calculus = persistCourse("MA101", "Calculus");
+        index.rebuild();
+        
+        assertEquals(List.of(ada.getId(), alan.getId(), algorithms.getId()), ids(index.suggest("A", ALL, 10)));
+        assertEquals(List.of(ada.getId()), ids(index.suggest("  lovelace  a", ALL, 10)));
+        assertEquals(List.of(ada.getId(), alan.getId()), ids(index.suggest("s100", ALL, 10)));
+        assertEquals(List.of(calculus.getId()), ids(index.suggest("ma1", ALL, 10)));
+        assertEquals(List.of(algorithms.getId()), ids(index.suggest("a", EnumSet.of(SuggestionDTO.Type.COURSE), 10)));
+        assertEquals(List.of(ada.getId()), ids(index.suggest("a", ALL, 1)));
+        assertEquals(List.of(), index.suggest(" ", ALL, 10));
+    }
+    
+    @Test
+    void followsWritesAfterTheInitialBuild() {
+        Student grace = persistStudent("S2001", "Grace", "Hopper", "grace@example.com");
+        Course course = persistCourse("CS101", "Programming");
+        index.rebuild();
+        
+        grace.setLastName("Brewster");
+        entityManager.persistAndFlush(grace);
+        Student alan = persistStudent("S1002", "Alan", "Turing", "alan@example.com");
+        entityManager.remove(course);
+        entityManager.flush();
+        index.onStudentsChanged(new StudentsChangedEvent(List.of(grace.getId(), alan.getId())));
+        index.onCatalogChanged(new CourseCatalogChangedEvent(course.getId()));
+        
+        assertEquals(List.of(grace.getId()), ids(index.suggest("brew", ALL, 10)));
+        assertEquals(List.of(), index.suggest("hopper", ALL, 10));
+        assertEquals(List.of(alan.getId()), ids(index.suggest("turing", ALL, 10)));
+        assertEquals(List.of(), index.suggest("cs1", ALL, 10));
+    }
+    
+    private static List<Long> ids(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getId).toList();
+    }
+    
+    private Student persistStudent(String studentId, String firstName, String lastName, String email) {
+        Student student = new Student();
+        student.setStudentId(studentId);
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setEmail(email);
+        student.setDepartment("Science");
+        return entityManager.persistAndFlush(student);
+    }
+    
+    private Course persistCourse(String code, String title) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setTitle(title);
+        course.setCredits(3);
+        course.setDepartment("Science");
+        return entityManager.persistAndFlush(course);
+    }
+}
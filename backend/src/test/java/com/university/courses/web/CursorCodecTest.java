@@ -0,0 +1,120 @@
+package com.university.courses.web;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.university.courses.entity.Registration;
+import com.university.courses.entity.Registration.RegistrationStatus;
+import com.university.courses.entity.Result;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorCodecTest {
+    
+    // Configured like Spring Boot's mapper: ISO dates rather than timestamp arrays
+    private final CursorCodec codec = new CursorCodec(JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build());
+    
+    @Test
+    void timestampAndEnumKeysComeBackAsTheirPropertyTypes() {
+        Sort sort = Sort.by("status", "registrationDate", "id");
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("status", RegistrationStatus.ENROLLED);
+        keys.put("registrationDate", LocalDateTime.of(2024, 9, 1, 8, 30, 15, 123_000_000));
+        keys.put("id", 42L);
+        
+        KeysetScrollPosition position = roundTrip(keys, Registration.class, sort);
+        
+        assertEquals(keys, position.getKeys());
+        assertInstanceOf(RegistrationStatus.class, position.getKeys().get("status"));
+        assertInstanceOf(LocalDateTime.class, position.getKeys().get("registrationDate"));
+        assertInstanceOf(Long.class, position.getKeys().get("id"));
+    }
+    
+    @Test
+    void decimalKeysKeepTheirScaleAndNullsStayNull() {
+        Sort sort = Sort.by("marks", "gpaPoints", "resultDate", "id");
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("marks", new BigDecimal("87.50"));
+        keys.put("gpaPoints", new BigDecimal("3.70"));
+        keys.put("resultDate", null);
+        keys.put("id", 7L);
+        
+        KeysetScrollPosition position = roundTrip(keys, Result.class, sort);
+        
+        assertEquals(new BigDecimal("87.50"), position.getKeys().get("marks"));
+        assertEquals(new BigDecimal("3.70"), position.getKeys().get("gpaPoints"));
+        assertTrue(position.getKeys().containsKey("resultDate"));
+        assertNull(position.getKeys().get("resultDate"));
+        assertEquals(7L, position.getKeys().get("id"));
+    }
+    
+    @Test
+    void lastPageHasNoCursorAndNoCursorMeansFirstPage() {
+        Sort sort = Sort.by("id");
+        Window<String> window = Window.from(List.of("only"), i -> ScrollPosition.forward(Map.of("id", 1L)), false);
+        
+        ResponseEntity<List<String>> response = codec.ok(window, sort);
+        
+        assertFalse(response.getHeaders().containsKey(CursorCodec.NEXT_CURSOR_HEADER));
+        assertEquals(List.of("only"), response.getBody());
+        assertTrue(codec.decode(null, Result.class, sort).isInitial());
+        assertTrue(codec.decode(" ", Result.class, sort).isInitial());
+    }
+    
+    @Test
+    void cursorFromAnotherSortIsRejected() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("marks", new BigDecimal("87.50"));
+        keys.put("id", 7L);
+        String cursor = nextCursor(keys, Sort.by("marks", "id"));
+        
+        // Mapped to 400 Bad Request by the global exception handler
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(cursor, Result.class, Sort.by(Sort.Direction.DESC, "marks", "id")));
+        assertTrue(e.getMessage().contains("different sort order"));
+    }
+    
+    @Test
+    void tamperedCursorsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("not base64!", Result.class, Sort.by("id")));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("e30", Result.class, Sort.by("id")));
+        
+        String unknownProperty = nextCursor(Map.of("password", "x"), Sort.by("password"));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(unknownProperty, Result.class, Sort.by("password")));
+    }
+    
+    private KeysetScrollPosition roundTrip(Map<String, Object> keys, Class<?> entityType, Sort sort) {
+        ScrollPosition position = codec.decode(nextCursor(keys, sort), entityType, sort);
+        return assertInstanceOf(KeysetScrollPosition.class, position);
+    }
+    
+    /**
+     * The cursor a page ending on a row with these keys hands out.
+     */
+    private String nextCursor(Map<String, Object> keys, Sort sort) {
+        Window<String> window = Window.from(List.of("row"), i -> ScrollPosition.forward(keys), true);
+        String cursor = codec.ok(window, sort).getHeaders().getFirst(CursorCodec.NEXT_CURSOR_HEADER);
+        assertFalse(cursor == null || cursor.isBlank());
+        return cursor;
+    }
+}
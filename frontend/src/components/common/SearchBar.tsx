@@ -1,5 +1,12 @@
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import { Search, Filter, Plus } from 'lucide-react';
+import apiService from '../../services/api';
+import { Suggestion } from '../../types';
+
+const SUGGESTION_TYPES: Record<string, Suggestion['type']> = {
+  students: 'STUDENT',
+  courses: 'COURSE',
+};
 
 interface SearchBarProps {
   searchTerm: string;
@@ -18,6 +25,27 @@ const SearchBar: React.FC<SearchBarProps> = ({
   setShowFilters, 
   onAddClick 
 }) => {
+  const [suggestions, setSuggestions] = useState<Suggestion[]>([]);
+  const suggestionType = SUGGESTION_TYPES[activeTab];
+
+  useEffect(() => {
+    if (!suggestionType || !searchTerm.trim()) {
+      setSuggestions([]);
+      return;
+    }
+    let cancelled = false;
+    apiService.suggest(searchTerm, [suggestionType], 8)
+      .then(result => {
+        if (!cancelled) {
+          setSuggestions(result);
+        }
+      })
+      .catch(() => setSuggestions([]));
+    return () => {
+      cancelled = true;
+    };
+  }, [searchTerm, suggestionType]);
+
   return (
     <div className="flex justify-between items-center mb-6">
       <div className="flex items-center space-x-4">
@@ -28,8 +56,16 @@ const SearchBar: React.FC<SearchBarProps> = ({
             placeholder={`Search ${activeTab}...`}
             value={searchTerm}
             onChange={(e) => setSearchTerm(e.target.value)}
+            list="search-suggestions"
             className="pl-10 pr-4 py-2 border rounded-lg w-64"
           />
+          <datalist id="search-suggestions">
+            {suggestions.map(suggestion => (
+              <option key={`${suggestion.type}-${suggestion.id}`} value={suggestion.label}>
+                {suggestion.detail}
+              </option>
+            ))}
+          </datalist>
         </div>
         <button
           onClick={() => setShowFilters(!showFilters)}
@@ -29,8 +29,8 @@ const RegistrationForm: React.FC<RegistrationFormProps> = ({ registration, onSav
           apiService.getStudents(),
           apiService.getCourses()
         ]);
-        setStudents(studentsData);
-        setCourses(coursesData);
+        setStudents(studentsData.items);
+        setCourses(coursesData.items);
       } catch (error) {
         console.error('Error fetching form data:', error);
       }
@@ -127,6 +127,7 @@ const RegistrationForm: React.FC<RegistrationFormProps> = ({ registration, onSav
               <option value={RegistrationStatus.ENROLLED}>Enrolled</option>
               <option value={RegistrationStatus.DROPPED}>Dropped</option>
               <option value={RegistrationStatus.COMPLETED}>Completed</option>
+              <option value={RegistrationStatus.WAITLISTED}>Waitlisted</option>
             </select>
           </div>
           
@@ -24,7 +24,7 @@ const ResultForm: React.FC<ResultFormProps> = ({ result, onSave, onCancel }) =>
     const fetchRegistrations = async () => {
       try {
         const registrationsData = await apiService.getRegistrations();
-        setRegistrations(registrationsData);
+        setRegistrations(registrationsData.items);
       } catch (error) {
         console.error('Error fetching registrations:', error);
       }
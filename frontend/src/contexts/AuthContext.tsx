@@ -37,6 +37,7 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
         })
         .catch(() => {
           localStorage.removeItem('token');
+          localStorage.removeItem('refreshToken');
         })
         .finally(() => {
           setIsLoading(false);
@@ -49,6 +50,7 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
   const login = async (username: string, password: string) => {
     const response = await authService.login(username, password);
     localStorage.setItem('token', response.token);
+    localStorage.setItem('refreshToken', response.refreshToken);
     setUser({
       id: response.userId,
       username: response.username,
@@ -61,6 +63,7 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
   const register = async (data: any) => {
     const response = await authService.register(data);
     localStorage.setItem('token', response.token);
+    localStorage.setItem('refreshToken', response.refreshToken);
     setUser({
       id: response.userId,
       username: response.username,
@@ -71,7 +74,9 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
   };
 
   const logout = () => {
+    authService.logout(localStorage.getItem('refreshToken')).catch(() => undefined);
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     setUser(null);
     window.location.href = '/login';
   };
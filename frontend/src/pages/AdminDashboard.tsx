@@ -35,13 +35,16 @@ const AdminDashboard: React.FC = () => {
   const [editingItem, setEditingItem] = useState<Student | Course | Registration | Result | null>(null);
   const [searchTerm, setSearchTerm] = useState<string>('');
   const [showFilters, setShowFilters] = useState<boolean>(false);
+  // Cursor for the next page of the active tab's list; undefined once the last page is loaded
+  const [nextCursor, setNextCursor] = useState<string | undefined>(undefined);
 
   // Fetch data functions
-  const fetchStudents = async (): Promise<void> => {
+  const fetchStudents = async (after?: string): Promise<void> => {
     try {
-      setLoading(true);
-      const data = await apiService.getStudents();
-      setStudents(data);
+      setLoading(!after);
+      const page = await apiService.getStudents({ after });
+      setStudents(previous => after ? [...previous, ...page.items] : page.items);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching students:', error);
     } finally {
@@ -49,11 +52,12 @@ const AdminDashboard: React.FC = () => {
     }
   };
 
-  const fetchCourses = async (): Promise<void> => {
+  const fetchCourses = async (after?: string): Promise<void> => {
     try {
-      setLoading(true);
-      const data = await apiService.getCourses();
-      setCourses(data);
+      setLoading(!after);
+      const page = await apiService.getCourses({ after });
+      setCourses(previous => after ? [...previous, ...page.items] : page.items);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching courses:', error);
     } finally {
@@ -61,11 +65,12 @@ const AdminDashboard: React.FC = () => {
     }
   };
 
-  const fetchRegistrations = async (): Promise<void> => {
+  const fetchRegistrations = async (after?: string): Promise<void> => {
     try {
-      setLoading(true);
-      const data = await apiService.getRegistrations();
-      setRegistrations(data);
+      setLoading(!after);
+      const page = await apiService.getRegistrations({ after });
+      setRegistrations(previous => after ? [...previous, ...page.items] : page.items);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching registrations:', error);
     } finally {
@@ -73,11 +78,12 @@ const AdminDashboard: React.FC = () => {
     }
   };
 
-  const fetchResults = async (): Promise<void> => {
+  const fetchResults = async (after?: string): Promise<void> => {
     try {
-      setLoading(true);
-      const data = await apiService.getResults();
-      setResults(data);
+      setLoading(!after);
+      const page = await apiService.getResults({ after });
+      setResults(previous => after ? [...previous, ...page.items] : page.items);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching results:', error);
     } finally {
@@ -85,7 +91,17 @@ const AdminDashboard: React.FC = () => {
     }
   };
 
+  const loadMore = (): void => {
+    switch (activeTab) {
+      case 'students': fetchStudents(nextCursor); break;
+      case 'courses': fetchCourses(nextCursor); break;
+      case 'registrations': fetchRegistrations(nextCursor); break;
+      case 'results': fetchResults(nextCursor); break;
+    }
+  };
+
   useEffect(() => {
+    setNextCursor(undefined);
     switch (activeTab) {
       case 'students':
         fetchStudents();
@@ -277,6 +293,17 @@ const AdminDashboard: React.FC = () => {
                 onDelete={handleDeleteResult}
               />
             )}
+
+            {nextCursor && (
+              <div className="px-6 py-4 border-t text-center">
+                <button
+                  onClick={loadMore}
+                  className="text-sm font-medium text-blue-600 hover:text-blue-800"
+                >
+                  Load more
+                </button>
+              </div>
+            )}
           </div>
         )}
 
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { BookOpen, ClipboardList, Award, LogOut, User } from 'lucide-react';
-import { Course, Registration, Result } from '../types';
+import { Course, Registration, RegistrationStatus, Result } from '../types';
 import { useAuth } from '../contexts/AuthContext';
 import apiService from '../services/api';
 import LoadingSpinner from '../components/common/LoadingSpinner';
@@ -10,6 +10,8 @@ const StudentPortal: React.FC = () => {
   const [availableCourses, setAvailableCourses] = useState<Course[]>([]);
   const [enrolledCourses, setEnrolledCourses] = useState<Course[]>([]);
   const [results, setResults] = useState<Result[]>([]);
+  const [gpa, setGpa] = useState<number | undefined>(undefined);
+  const [enrolledCredits, setEnrolledCredits] = useState(0);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
   
@@ -17,27 +19,34 @@ const StudentPortal: React.FC = () => {
 
   useEffect(() => {
     fetchData();
+  }, []);
+
+  // Seat counts arrive as pushed updates instead of re-fetching the course list
+  useEffect(() => {
+    if (activeTab !== 'available') {
+      return;
+    }
+    return apiService.streamSeatAvailability(seats => {
+      const byCourse = new Map(seats.map(seat => [seat.courseId, seat]));
+      setAvailableCourses(courses => courses.map(course => {
+        const seat = course.id !== undefined ? byCourse.get(course.id) : undefined;
+        return seat ? { ...course, currentEnrollment: seat.enrolled, waitlistCount: seat.waitlisted } : course;
+      }));
+    });
   }, [activeTab]);
 
+  // One round trip loads every tab
   const fetchData = async () => {
     setLoading(true);
     setError(null);
     
     try {
-      switch (activeTab) {
-        case 'available':
-          const available = await apiService.getAvailableCoursesForStudent();
-          setAvailableCourses(available);
-          break;
-        case 'enrolled':
-          const enrolled = await apiService.getEnrolledCoursesForStudent();
-          setEnrolledCourses(enrolled);
-          break;
-        case 'results':
-          const studentResults = await apiService.getStudentResults();
-          setResults(studentResults);
-          break;
-      }
+      const dashboard = await apiService.getStudentDashboard();
+      setAvailableCourses(dashboard.availableCourses);
+      setEnrolledCourses(dashboard.enrolledCourses);
+      setResults(dashboard.results);
+      setGpa(dashboard.gpa);
+      setEnrolledCredits(dashboard.enrolledCredits);
     } catch (err) {
       setError('Failed to fetch data');
       console.error(err);
@@ -48,7 +57,10 @@ const StudentPortal: React.FC = () => {
 
   const handleEnroll = async (courseId: number) => {
     try {
-      await apiService.enrollInCourse(courseId);
+      const registration = await apiService.enrollInCourse(courseId);
+      if (registration.status === RegistrationStatus.WAITLISTED) {
+        window.alert('This course is full. You have been added to the waitlist and will be enrolled when a seat opens.');
+      }
       await fetchData();
       setActiveTab('enrolled');
     } catch (err) {
@@ -67,12 +79,6 @@ const StudentPortal: React.FC = () => {
     }
   };
 
-  const calculateGPA = () => {
-    if (results.length === 0) return 'N/A';
-    const totalPoints = results.reduce((sum, result) => sum + (result.gpaPoints || 0), 0);
-    return (totalPoints / results.length).toFixed(2);
-  };
-
   return (
     <div className="min-h-screen bg-gray-50">
       {/* Header */}
@@ -104,7 +110,8 @@ const StudentPortal: React.FC = () => {
             <div>
               <h2 className="text-xl font-semibold">{user?.username}</h2>
               <p className="text-gray-600">{user?.email}</p>
-              <p className="text-sm text-gray-500">Current GPA: {calculateGPA()}</p>
+              <p className="text-sm text-gray-500">Current GPA: {gpa != null ? gpa.toFixed(2) : 'N/A'}</p>
+              <p className="text-sm text-gray-500">Enrolled credits: {enrolledCredits}</p>
             </div>
           </div>
         </div>
@@ -1,37 +1,93 @@
-import { Student, Course, Registration, Result, SearchParams } from '../types';
+import { Student, Course, Registration, Result, SearchParams, CursorPage, AvailableCoursesParams, EnrollmentTicket, SeatAvailability, StudentDashboard, Suggestion } from '../types';
+import authService from './authService';
 
 const API_BASE_URL = 'http://localhost:8080/api';
 
+// Lets the server replay the original response if a retried write already went through
+const idempotencyHeaders = (): Record<string, string> => ({ 'Idempotency-Key': crypto.randomUUID() });
+
+// Keyset-paginated lists send the cursor for the following page in this header
+const NEXT_CURSOR_HEADER = 'X-Next-Cursor';
+
+// Leaves out unset parameters, which URLSearchParams would otherwise send as "undefined"
+const queryString = (params: object): string => {
+  const query = new URLSearchParams();
+  Object.entries(params).forEach(([key, value]) => {
+    if (value !== undefined && value !== null && value !== '') {
+      query.append(key, String(value));
+    }
+  });
+  const encoded = query.toString();
+  return encoded ? `?${encoded}` : '';
+};
+
 class ApiService {
+  private refreshing: Promise<boolean> | null = null;
+
+  // Access tokens are short-lived; swap the stored refresh token for a new pair, sharing one call between concurrent requests
+  private refreshTokens(): Promise<boolean> {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) {
+      return Promise.resolve(false);
+    }
+    if (!this.refreshing) {
+      this.refreshing = authService.refresh(refreshToken)
+        .then(response => {
+          localStorage.setItem('token', response.token);
+          localStorage.setItem('refreshToken', response.refreshToken);
+          return true;
+        })
+        .catch(() => false)
+        .finally(() => {
+          this.refreshing = null;
+        });
+    }
+    return this.refreshing;
+  }
+
   private async request<T>(endpoint: string, options: RequestInit = {}): Promise<T> {
+    const response = await this.send(endpoint, options);
+    if (response.status === 204) {
+      return null as T;
+    }
+    return response.json();
+  }
+
+  private async requestPage<T>(endpoint: string): Promise<CursorPage<T>> {
+    const response = await this.send(endpoint);
+    const nextCursor = response.headers.get(NEXT_CURSOR_HEADER);
+    return { items: await response.json(), nextCursor: nextCursor ?? undefined };
+  }
+
+  private async send(endpoint: string, options: RequestInit = {}, retried = false): Promise<Response> {
     const url = `${API_BASE_URL}${endpoint}`;
     const token = localStorage.getItem('token');
     
     const config: RequestInit = {
+      ...options,
       headers: {
         'Content-Type': 'application/json',
         ...(token && { 'Authorization': `Bearer ${token}` }),
         ...options.headers,
       },
-      ...options,
     };
 
     try {
       const response = await fetch(url, config);
       
       if (!response.ok) {
+        if ((response.status === 401 || response.status === 403) && !retried && await this.refreshTokens()) {
+          return this.send(endpoint, options, true);
+        }
         if (response.status === 401) {
           localStorage.removeItem('token');
+          localStorage.removeItem('refreshToken');
           window.location.href = '/login';
         }
         throw new Error(`HTTP error! status: ${response.status}`);
       }
       
-      if (response.status === 204) {
-        return null as T;
-      }
-      
-      return await response.json();
+      return response;
     } catch (error) {
       console.error(`API request failed: ${endpoint}`, error);
       throw error;
@@ -39,9 +95,8 @@ class ApiService {
   }
 
   // Students API
-  async getStudents(params: SearchParams = {}): Promise<Student[]> {
-    const queryString = new URLSearchParams(params as any).toString();
-    return this.request<Student[]>(`/students${queryString ? `?${queryString}` : ''}`);
+  async getStudents(params: SearchParams = {}): Promise<CursorPage<Student>> {
+    return this.requestPage<Student>(`/students${queryString(params)}`);
   }
 
   async getStudentById(id: number): Promise<Student> {
@@ -69,9 +124,8 @@ class ApiService {
   }
 
   // Courses API
-  async getCourses(params: SearchParams = {}): Promise<Course[]> {
-    const queryString = new URLSearchParams(params as any).toString();
-    return this.request<Course[]>(`/courses${queryString ? `?${queryString}` : ''}`);
+  async getCourses(params: SearchParams = {}): Promise<CursorPage<Course>> {
+    return this.requestPage<Course>(`/courses${queryString(params)}`);
   }
 
   async getCourseById(id: number): Promise<Course> {
@@ -99,9 +153,8 @@ class ApiService {
   }
 
   // Registrations API
-  async getRegistrations(params: SearchParams = {}): Promise<Registration[]> {
-    const queryString = new URLSearchParams(params as any).toString();
-    return this.request<Registration[]>(`/registrations${queryString ? `?${queryString}` : ''}`);
+  async getRegistrations(params: SearchParams = {}): Promise<CursorPage<Registration>> {
+    return this.requestPage<Registration>(`/registrations${queryString(params)}`);
   }
 
   async getRegistrationById(id: number): Promise<Registration> {
@@ -111,6 +164,7 @@ class ApiService {
   async createRegistration(registration: Registration): Promise<Registration> {
     return this.request<Registration>('/registrations', {
       method: 'POST',
+      headers: idempotencyHeaders(),
       body: JSON.stringify(registration),
     });
   }
@@ -129,9 +183,8 @@ class ApiService {
   }
 
   // Results API
-  async getResults(params: SearchParams = {}): Promise<Result[]> {
-    const queryString = new URLSearchParams(params as any).toString();
-    return this.request<Result[]>(`/results${queryString ? `?${queryString}` : ''}`);
+  async getResults(params: SearchParams = {}): Promise<CursorPage<Result>> {
+    return this.requestPage<Result>(`/results${queryString(params)}`);
   }
 
   async getResultById(id: number): Promise<Result> {
@@ -141,6 +194,7 @@ class ApiService {
   async createResult(result: Result): Promise<Result> {
     return this.request<Result>('/results', {
       method: 'POST',
+      headers: idempotencyHeaders(),
       body: JSON.stringify(result),
     });
   }
@@ -166,9 +220,72 @@ class ApiService {
     return this.request<number>(`/results/course/${courseId}/average`);
   }
 
+  // Typeahead completions, answered from server memory so it is cheap to call on every keystroke
+  async suggest(q: string, types: Suggestion['type'][] = [], limit = 10): Promise<Suggestion[]> {
+    const params = new URLSearchParams({ q, limit: String(limit) });
+    types.forEach(type => params.append('types', type));
+    return this.request<Suggestion[]>(`/suggest?${params.toString()}`);
+  }
+
   // Student Portal API
-  async getAvailableCoursesForStudent(): Promise<Course[]> {
-    return this.request<Course[]>('/student/courses/available');
+  async getStudentDashboard(): Promise<StudentDashboard> {
+    return this.request<StudentDashboard>('/student/dashboard');
+  }
+
+  // Offset-paged, unlike the admin lists
+  async getAvailableCoursesForStudent(params: AvailableCoursesParams = {}): Promise<Course[]> {
+    return this.request<Course[]>(`/student/courses/available${queryString(params)}`);
+  }
+
+  // Server-Sent Events read through fetch, since EventSource cannot send the Authorization header.
+  // Calls onUpdate with the initial snapshot and then with each batch of changed courses; returns a function that closes the stream.
+  streamSeatAvailability(onUpdate: (seats: SeatAvailability[]) => void): () => void {
+    const controller = new AbortController();
+    const connect = () => {
+      const token = localStorage.getItem('token');
+      fetch(`${API_BASE_URL}/student/courses/seats/stream`, {
+        headers: {
+          'Accept': 'text/event-stream',
+          ...(token && { 'Authorization': `Bearer ${token}` }),
+        },
+        signal: controller.signal,
+      }).then(async response => {
+        if (!response.ok || !response.body) {
+          throw new Error(`HTTP error! status: ${response.status}`);
+        }
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        while (true) {
+          const { value, done } = await reader.read();
+          if (done) {
+            break;
+          }
+          buffer += value;
+          const events = buffer.split('\n\n');
+          buffer = events.pop() || '';
+          for (const event of events) {
+            const data = event.split('\n')
+              .filter(line => line.startsWith('data:'))
+              .map(line => line.slice(5))
+              .join('\n');
+            if (data) {
+              onUpdate(JSON.parse(data));
+            }
+          }
+        }
+      }).catch(error => {
+        if (!controller.signal.aborted) {
+          console.error('Seat availability stream failed', error);
+        }
+      }).finally(() => {
+        // The server drops subscribers that fall behind; reconnecting starts again from a fresh snapshot
+        if (!controller.signal.aborted) {
+          setTimeout(connect, 2000);
+        }
+      });
+    };
+    connect();
+    return () => controller.abort();
   }
 
   async getEnrolledCoursesForStudent(): Promise<Course[]> {
@@ -183,10 +300,24 @@ class ApiService {
     return this.request<Result[]>('/student/results');
   }
 
+  // During registration rush mode the server queues the request and answers with a ticket to poll
   async enrollInCourse(courseId: number): Promise<Registration> {
-    return this.request<Registration>(`/student/courses/${courseId}/enroll`, {
-      method: 'POST'
+    let result = await this.request<Registration | EnrollmentTicket>(`/student/courses/${courseId}/enroll?wait=5000`, {
+      method: 'POST',
+      headers: idempotencyHeaders(),
     });
+    while ('ticketId' in result && (result.status === 'QUEUED' || result.status === 'PROCESSING')) {
+      const delay = Math.min(Math.max(result.estimatedWaitSeconds, 1), 10) * 1000;
+      await new Promise(resolve => setTimeout(resolve, delay));
+      result = await this.request<EnrollmentTicket>(`/student/enrollment-tickets/${result.ticketId}`);
+    }
+    if ('ticketId' in result) {
+      if (result.status === 'FAILED' || !result.registration) {
+        throw new Error(result.message || 'Enrollment failed');
+      }
+      return result.registration;
+    }
+    return result;
   }
 
   async unenrollFromCourse(courseId: number): Promise<void> {
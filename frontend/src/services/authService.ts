@@ -22,11 +22,16 @@ class AuthService {
       if (!response.ok) {
         if (response.status === 401) {
           localStorage.removeItem('token');
+          localStorage.removeItem('refreshToken');
           window.location.href = '/login';
         }
         throw new Error(`HTTP error! status: ${response.status}`);
       }
       
+      if (response.status === 204) {
+        return null as T;
+      }
+      
       return await response.json();
     } catch (error) {
       console.error(`API request failed: ${endpoint}`, error);
@@ -49,6 +54,25 @@ class AuthService {
     });
   }
 
+  async refresh(refreshToken: string): Promise<AuthResponse> {
+    const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ refreshToken }),
+    });
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    return await response.json();
+  }
+
+  async logout(refreshToken: string | null): Promise<void> {
+    return this.request<void>('/auth/logout', {
+      method: 'POST',
+      body: JSON.stringify({ refreshToken }),
+    });
+  }
+
   async getCurrentUser(): Promise<AuthUser> {
     return this.request<AuthUser>('/auth/me');
   }
@@ -21,6 +21,7 @@ export interface Course {
   department: string;
   maxEnrollment?: number;
   currentEnrollment?: number;
+  waitlistCount?: number;
   createdAt?: string;
   updatedAt?: string;
 }
@@ -37,6 +38,31 @@ export interface Registration {
   remarks?: string;
 }
 
+export interface EnrollmentTicket {
+  ticketId: string;
+  courseId: number;
+  status: 'QUEUED' | 'PROCESSING' | 'COMPLETED' | 'FAILED';
+  position: number;
+  estimatedWaitSeconds: number;
+  registration?: Registration;
+  message?: string;
+}
+
+export interface Suggestion {
+  type: 'STUDENT' | 'COURSE';
+  id: number;
+  label: string;
+  detail?: string;
+}
+
+export interface SeatAvailability {
+  courseId: number;
+  maxEnrollment?: number;
+  enrolled: number;
+  waitlisted: number;
+  available?: number;
+}
+
 export interface Result {
   id?: number;
   registrationId: number;
@@ -57,7 +83,8 @@ export interface Result {
 export enum RegistrationStatus {
   ENROLLED = 'ENROLLED',
   DROPPED = 'DROPPED',
-  COMPLETED = 'COMPLETED'
+  COMPLETED = 'COMPLETED',
+  WAITLISTED = 'WAITLISTED'
 }
 
 export interface Tab {
@@ -72,13 +99,39 @@ export interface ApiResponse<T> {
   status?: number;
 }
 
+export interface StudentDashboard {
+  availableCourses: Course[];
+  enrolledCourses: Course[];
+  registrations: Registration[];
+  results: Result[];
+  gpa?: number;
+  enrolledCredits: number;
+  completedCredits: number;
+}
+
 export interface SearchParams {
-  page?: number;
+  // Opaque cursor from the previous page's nextCursor; omit for the first page
+  after?: string;
   size?: number;
   sortBy?: string;
   sortDir?: string;
 }
 
+// One page of a keyset-paginated list; nextCursor is absent on the last page
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor?: string;
+}
+
+export interface AvailableCoursesParams {
+  title?: string;
+  department?: string;
+  minCredits?: number;
+  maxCredits?: number;
+  page?: number;
+  size?: number;
+}
+
 export interface AuthUser {
   id: number;
   username: string;
@@ -108,6 +161,8 @@ export interface RegisterRequest {
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
+  expiresIn: number;
   username: string;
   email: string;
   role: string;
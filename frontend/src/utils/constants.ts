@@ -3,7 +3,8 @@ export const API_BASE_URL = 'http://localhost:8080/api';
 export const REGISTRATION_STATUS = {
   ENROLLED: 'ENROLLED',
   DROPPED: 'DROPPED',
-  COMPLETED: 'COMPLETED'
+  COMPLETED: 'COMPLETED',
+  WAITLISTED: 'WAITLISTED'
 } as const;
 
 export const GRADE_COLORS: Record<string, string> = {
@@ -22,7 +23,8 @@ export const GRADE_COLORS: Record<string, string> = {
 export const STATUS_COLORS: Record<string, string> = {
   ENROLLED: 'bg-green-100 text-green-800',
   DROPPED: 'bg-red-100 text-red-800',
-  COMPLETED: 'bg-blue-100 text-blue-800'
+  COMPLETED: 'bg-blue-100 text-blue-800',
+  WAITLISTED: 'bg-yellow-100 text-yellow-800'
 };
 
 export const DEFAULT_PAGE_SIZE = 10;